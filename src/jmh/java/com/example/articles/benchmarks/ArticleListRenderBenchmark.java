@@ -0,0 +1,70 @@
+package com.example.articles.benchmarks;
+
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Только отрисовка articles/list для готовой страницы карточек, без запросов к БД.
+// HTML карточек после первой итерации берётся из ArticleCardCache - измеряется сборка страницы из готовых фрагментов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleListRenderBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private View view;
+    private MockServletContext servletContext;
+    private Map<String, Object> model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        view = context.getBean(ThymeleafViewResolver.class).resolveViewName("articles/list", Locale.forLanguageTag("ru"));
+        servletContext = new MockServletContext();
+
+        List<ArticleCard> articles = context.getBean(ArticleService.class).getArticleCards(null, 20).getItems();
+        model = new HashMap<>();
+        model.put("articles", articles);
+        model.put("nextPageUrl", "/articles?cursor=next");
+        model.put("prevPageUrl", null);
+        model.put("currentUser", null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderList() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/articles");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // Как в DispatcherServlet: карточки (ArticleCardCache) отрисовываются для текущего запроса
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            view.render(new HashMap<>(model), request, response);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.articles.benchmarks;
+
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.CursorPage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+// Чтение страниц-списков: первая и "глубокая" страница ленты, статьи по тегу, поиск
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleReadBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private ArticleService articleService;
+    private String deepCursor;
+    private Long tagId;
+    private String query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        articleService = context.getBean(ArticleService.class);
+
+        // Курсор на 50-ю страницу ленты
+        CursorPage<ArticleCard> page = articleService.getArticleCards(null, PAGE_SIZE);
+        for (int i = 0; i < 50 && page.hasNext(); i++) {
+            deepCursor = page.getNextCursor();
+            page = articleService.getArticleCards(deepCursor, PAGE_SIZE);
+        }
+        ArticleCard card = page.getItems().get(0);
+        tagId = card.getTags().get(0).getId();
+        query = Arrays.stream(card.getTitle().split("[^\\p{L}\\p{N}]+"))
+                .max(Comparator.comparingInt(String::length))
+                .orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<ArticleCard> firstPage() {
+        return articleService.getArticleCards(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<ArticleCard> deepPage() {
+        return articleService.getArticleCards(deepCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<ArticleCard> byTag() {
+        return articleService.getArticleCardsByTag(tagId, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<ArticleCard> search() {
+        return articleService.searchArticleCards(query, null, PAGE_SIZE);
+    }
+}
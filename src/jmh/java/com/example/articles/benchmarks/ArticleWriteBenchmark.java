@@ -0,0 +1,64 @@
+package com.example.articles.benchmarks;
+
+import com.example.articles.entities.Article;
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.UserRepository;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.CommentService;
+import com.example.articles.service.CommentSubmission;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Запись: обновление статьи (с разрешением автора и тегов) и отправка комментария
+// (submitComment ждёт записи пачкой, как веб-запрос)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleWriteBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ArticleService articleService;
+    private CommentService commentService;
+    private Long articleId;
+    private Long authorId;
+    private List<Long> tagIds;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        articleService = context.getBean(ArticleService.class);
+        commentService = context.getBean(CommentService.class);
+
+        ArticleCard card = articleService.getArticleCards(null, 1).getItems().get(0);
+        articleId = card.getId();
+        authorId = card.getAuthorId();
+        tagIds = card.getTags().stream().map(ArticleCard.TagRef::getId).toList();
+        userId = context.getBean(UserRepository.class).findByUsername("admin").getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Article updateArticle() {
+        Article update = new Article();
+        update.setTitle("Benchmark title");
+        update.setDescription("Benchmark description");
+        update.setBody("Benchmark body");
+        return articleService.updateArticle(articleId, update, authorId, tagIds);
+    }
+
+    @Benchmark
+    public CommentSubmission submitComment() {
+        return commentService.submitComment(articleId, userId, "Benchmark comment");
+    }
+}
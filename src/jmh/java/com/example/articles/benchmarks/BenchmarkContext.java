@@ -0,0 +1,36 @@
+package com.example.articles.benchmarks;
+
+import com.example.articles.ArticlesApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Приложение для бенчмарков: встроенная H2 (настройки из тестового classpath) с фиксированным набором данных.
+// Объём можно поменять без перекомпиляции: -Dbench.articles=100000 и т.п.
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    // extraArgs - дополнительные настройки конкретного бенчмарка в виде "--ключ=значение"
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        // Аргументами командной строки, чтобы перекрыть application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                // Как в продакшене: шаблоны разбираются один раз
+                "--spring.thymeleaf.cache=true",
+                "--articles.seed.enabled=true",
+                "--articles.seed.async=false",
+                "--articles.seed.random-seed=42",
+                "--articles.seed.users=" + System.getProperty("bench.users", "1000"),
+                "--articles.seed.articles=" + System.getProperty("bench.articles", "20000")));
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(ArticlesApplication.class).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.articles.benchmarks;
+
+import com.example.articles.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность HTTP при 64 одновременных клиентах: платформенные потоки Tomcat против
+// виртуальных (spring.threads.virtual.enabled) с ограничителем обращений к БД перед пулом из 10 соединений.
+// Режим virtual имеет смысл только на Java 21+ - на Java 17 оба варианта выполняются на платформенных потоках
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> articleIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        context = BenchmarkContext.start(
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--articles.jdbc.limiter.enabled=" + virtual,
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                // Tomcat по умолчанию держит 200 потоков - меньше клиентов не ограничит
+                "--server.tomcat.threads.max=200");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        articleIds = context.getBean(ArticleService.class).findAll().stream()
+                .limit(1000)
+                .map(article -> article.getId())
+                .toList();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int articleDetails() throws IOException, InterruptedException {
+        Long id = articleIds.get(ThreadLocalRandom.current().nextInt(articleIds.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/articles/" + id)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int firstPage() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/articles")).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,408 @@
+package com.example.articles.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Нагрузочный драйвер: N виртуальных пользователей в замкнутом цикле воспроизводят смесь запросов
+// (лента, страница статьи, поиск, вход, добавление комментария) к запущенному приложению
+// и печатают пропускную способность и задержки p50/p99/p99.9 по каждому типу запроса.
+//
+// Приложение: mvn -P perf spring-boot:run -Dspring-boot.run.profiles=perf
+// Драйвер:    mvn -P loadtest -DskipTests verify -Dload.args="--concurrency 64 --duration 60"
+//
+// Каждый пользователь - отдельный поток платформы (проект собирается под Java 17, виртуальных потоков нет);
+// при нескольких сотнях пользователей этого достаточно, HttpClient сам мультиплексирует соединения.
+public class LoadDriver {
+
+    private static final Pattern ARTICLE_LINK = Pattern.compile("href=\"/articles/(\\d+)\"");
+    private static final Pattern CARD_TITLE = Pattern.compile("class=\"card-title\">([^<]+)<");
+    private static final Pattern PAGE_LINK = Pattern.compile("href=\"([^\"]*[?&](?:amp;)?cursor=[^\"]*)\"");
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern SESSION = Pattern.compile("JSESSIONID=([^;]+)");
+
+    enum Endpoint {
+        LIST("GET  /articles"),
+        DETAILS("GET  /articles/{id}"),
+        SEARCH("GET  /articles/search"),
+        LOGIN("POST /login"),
+        COMMENT("POST /articles/{id}/comments");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        waitUntilReady(client, options);
+        Workload workload = Workload.discover(client, options);
+        System.out.printf("Статей для запросов: %d, страниц ленты: %d, поисковых слов: %d%n",
+                workload.articleIds.size(), workload.listUrls.size(), workload.searchWords.size());
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(options.warmupSeconds).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(options.durationSeconds).toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(options.concurrency);
+        List<Future<Recorder>> futures = new ArrayList<>();
+        for (int i = 0; i < options.concurrency; i++) {
+            futures.add(pool.submit(() -> new VirtualUser(client, options, workload).run(warmupEnd, end)));
+        }
+        Recorder total = new Recorder();
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        pool.shutdown();
+
+        total.print(options.durationSeconds);
+    }
+
+    // Ждём, пока приложение поднимется и закончит генерацию данных (health = UP)
+    private static void waitUntilReady(HttpClient client, Options options) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(options.uri("/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(options.readyTimeoutMinutes).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // приложение ещё не слушает порт
+            }
+            System.out.println("Ожидание готовности " + options.baseUrl + " ...");
+            Thread.sleep(2000);
+        }
+        throw new IllegalStateException("Приложение не готово: " + options.baseUrl);
+    }
+
+    // Что запрашивать: id статей, страницы ленты (в т.ч. глубокие) и слова для поиска
+    static final class Workload {
+        final List<Long> articleIds = new ArrayList<>();
+        final List<String> listUrls = new ArrayList<>();
+        final List<String> searchWords = new ArrayList<>();
+
+        static Workload discover(HttpClient client, Options options) throws IOException, InterruptedException {
+            Workload workload = new Workload();
+            Set<Long> ids = new LinkedHashSet<>();
+            Set<String> words = new LinkedHashSet<>();
+            String url = "/articles";
+            for (int page = 0; page < options.listPages && url != null; page++) {
+                workload.listUrls.add(url);
+                String html = client.send(HttpRequest.newBuilder(options.uri(url)).GET().build(),
+                        HttpResponse.BodyHandlers.ofString()).body();
+                Matcher links = ARTICLE_LINK.matcher(html);
+                while (links.find()) {
+                    ids.add(Long.valueOf(links.group(1)));
+                }
+                Matcher titles = CARD_TITLE.matcher(html);
+                while (titles.find()) {
+                    Arrays.stream(titles.group(1).split("[^\\p{L}\\p{N}]+"))
+                            .filter(w -> w.length() >= 4)
+                            .map(w -> w.toLowerCase(Locale.ROOT))
+                            .forEach(words::add);
+                }
+                // Последняя ссылка с курсором на странице - "Старее"
+                String next = null;
+                Matcher pages = PAGE_LINK.matcher(html);
+                while (pages.find()) {
+                    next = pages.group(1).replace("&amp;", "&");
+                }
+                url = next != null ? relative(next) : null;
+            }
+            workload.articleIds.addAll(ids);
+            workload.searchWords.addAll(words);
+            if (workload.articleIds.isEmpty()) {
+                throw new IllegalStateException("В ленте нет статей - нечего нагружать");
+            }
+            return workload;
+        }
+
+        private static String relative(String url) {
+            URI uri = URI.create(url);
+            return uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        }
+    }
+
+    // Один пользователь: своя сессия (cookie) и CSRF-токен для отправки комментариев
+    static final class VirtualUser {
+        private final HttpClient client;
+        private final Options options;
+        private final Workload workload;
+        private final Recorder recorder = new Recorder();
+        private String session;
+        private String csrf;
+        private boolean recording;
+
+        VirtualUser(HttpClient client, Options options, Workload workload) {
+            this.client = client;
+            this.options = options;
+            this.workload = workload;
+        }
+
+        Recorder run(long warmupEnd, long end) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= end) {
+                    return recorder;
+                }
+                recording = now >= warmupEnd;
+                Endpoint endpoint = options.pick(random.nextInt(options.totalWeight()));
+                try {
+                    switch (endpoint) {
+                        case LIST -> get(endpoint, pick(workload.listUrls, random));
+                        case DETAILS -> get(endpoint, "/articles/" + pick(workload.articleIds, random));
+                        case SEARCH -> get(endpoint, "/articles/search?query="
+                                + URLEncoder.encode(pick(workload.searchWords, random), StandardCharsets.UTF_8));
+                        case LOGIN -> login();
+                        case COMMENT -> comment(pick(workload.articleIds, random));
+                    }
+                } catch (IOException e) {
+                    if (recording) {
+                        recorder.error(endpoint);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return recorder;
+                }
+            }
+        }
+
+        private String get(Endpoint endpoint, String path) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(options.uri(path)).GET();
+            HttpResponse<String> response = send(endpoint, request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? response.body() : null;
+        }
+
+        private void login() throws IOException, InterruptedException {
+            String form = "username=" + URLEncoder.encode(options.username, StandardCharsets.UTF_8)
+                    + "&password=" + URLEncoder.encode(options.password, StandardCharsets.UTF_8);
+            HttpRequest.Builder request = HttpRequest.newBuilder(options.uri("/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form));
+            HttpResponse<Void> response = send(Endpoint.LOGIN, request, HttpResponse.BodyHandlers.discarding());
+            Matcher cookie = SESSION.matcher(String.join(";", response.headers().allValues("Set-Cookie")));
+            if (cookie.find()) {
+                session = cookie.group(1);
+                csrf = null;
+            }
+        }
+
+        private void comment(Long articleId) throws IOException, InterruptedException {
+            if (session == null) {
+                login();
+            }
+            if (csrf == null) {
+                // Токен берём со страницы статьи - это обычный запрос DETAILS
+                String html = get(Endpoint.DETAILS, "/articles/" + articleId);
+                Matcher token = html != null ? CSRF.matcher(html) : null;
+                if (token == null || !token.find()) {
+                    session = null;
+                    return;
+                }
+                csrf = token.group(1);
+            }
+            String form = "body=" + URLEncoder.encode("Нагрузочный комментарий", StandardCharsets.UTF_8)
+                    + "&_csrf=" + URLEncoder.encode(csrf, StandardCharsets.UTF_8);
+            HttpRequest.Builder request = HttpRequest.newBuilder(options.uri("/articles/" + articleId + "/comments"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form));
+            HttpResponse<Void> response = send(Endpoint.COMMENT, request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 302 || response.headers().firstValue("Location").orElse("").contains("login")) {
+                session = null;
+            }
+        }
+
+        private <T> HttpResponse<T> send(Endpoint endpoint, HttpRequest.Builder request,
+                                         HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+            if (session != null) {
+                request.header("Cookie", "JSESSIONID=" + session);
+            }
+            long start = System.nanoTime();
+            HttpResponse<T> response = client.send(request.timeout(Duration.ofSeconds(30)).build(), handler);
+            long elapsed = System.nanoTime() - start;
+            if (recording) {
+                // Для POST успешный ответ - редирект; /login?error и прочие 4xx/5xx считаются ошибками
+                boolean ok = response.statusCode() < 400
+                        && !response.headers().firstValue("Location").orElse("").contains("error");
+                if (ok) {
+                    recorder.record(endpoint, elapsed);
+                } else {
+                    recorder.error(endpoint);
+                }
+            }
+            return response;
+        }
+
+        private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+            return values.get(random.nextInt(values.size()));
+        }
+    }
+
+    // Задержки по типам запросов; у каждого пользователя свой экземпляр, в конце они объединяются
+    static final class Recorder {
+        private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+
+        void record(Endpoint endpoint, long nanos) {
+            samples.computeIfAbsent(endpoint, e -> new Samples()).add(nanos);
+        }
+
+        void error(Endpoint endpoint) {
+            samples.computeIfAbsent(endpoint, e -> new Samples()).errors++;
+        }
+
+        void merge(Recorder other) {
+            other.samples.forEach((endpoint, s) -> samples.computeIfAbsent(endpoint, e -> new Samples()).addAll(s));
+        }
+
+        void print(long seconds) {
+            System.out.printf("%n%-30s %10s %8s %10s %9s %9s %9s %9s%n",
+                    "Запрос", "Кол-во", "Ошибки", "Запр./с", "p50, мс", "p99, мс", "p99.9, мс", "max, мс");
+            Samples all = new Samples();
+            for (Endpoint endpoint : Endpoint.values()) {
+                Samples s = samples.get(endpoint);
+                if (s != null) {
+                    print(endpoint.label, s, seconds);
+                    all.addAll(s);
+                }
+            }
+            print("Всего", all, seconds);
+        }
+
+        private static void print(String label, Samples s, long seconds) {
+            long[] sorted = Arrays.copyOf(s.values, s.size);
+            Arrays.sort(sorted);
+            System.out.printf("%-30s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    label, s.size, s.errors, (double) s.size / seconds,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis(percentile(sorted, 0.999)), millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    static final class Samples {
+        long[] values = new long[1024];
+        int size;
+        long errors;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            errors += other.errors;
+        }
+    }
+
+    // Параметры: --url, --concurrency, --duration, --warmup (секунды), --username/--password,
+    // --mix list=40,details=30,search=15,comment=10,login=5, --list-pages, --ready-timeout (минуты)
+    static final class Options {
+        String baseUrl = "http://localhost:8080";
+        int concurrency = 32;
+        long durationSeconds = 60;
+        long warmupSeconds = 10;
+        String username = "admin";
+        String password = "123";
+        int listPages = 10;
+        long readyTimeoutMinutes = 15;
+        final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                if (eq > 0) {
+                    values.put(arg.substring(2, eq), arg.substring(eq + 1));
+                } else if (i + 1 < args.length) {
+                    values.put(arg.substring(2), args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Нет значения для " + arg);
+                }
+            }
+            Options options = new Options();
+            options.baseUrl = values.getOrDefault("url", options.baseUrl).replaceAll("/+$", "");
+            options.concurrency = Integer.parseInt(values.getOrDefault("concurrency", String.valueOf(options.concurrency)));
+            options.durationSeconds = Long.parseLong(values.getOrDefault("duration", String.valueOf(options.durationSeconds)));
+            options.warmupSeconds = Long.parseLong(values.getOrDefault("warmup", String.valueOf(options.warmupSeconds)));
+            options.username = values.getOrDefault("username", options.username);
+            options.password = values.getOrDefault("password", options.password);
+            options.listPages = Integer.parseInt(values.getOrDefault("list-pages", String.valueOf(options.listPages)));
+            options.readyTimeoutMinutes = Long.parseLong(values.getOrDefault("ready-timeout", String.valueOf(options.readyTimeoutMinutes)));
+            for (String part : values.getOrDefault("mix", "list=40,details=30,search=15,comment=10,login=5").split(",")) {
+                String[] kv = part.split("=");
+                options.mix.put(Endpoint.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+            }
+            if (options.totalWeight() <= 0) {
+                throw new IllegalArgumentException("Пустая смесь запросов: " + values.get("mix"));
+            }
+            return options;
+        }
+
+        URI uri(String path) {
+            return URI.create(baseUrl + path);
+        }
+
+        int totalWeight() {
+            return mix.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        Endpoint pick(int roll) {
+            for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
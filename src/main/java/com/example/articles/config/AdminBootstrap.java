@@ -0,0 +1,65 @@
+package com.example.articles.config;
+
+import com.example.articles.entities.User;
+import com.example.articles.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Учётная запись администратора - при каждом запуске, независимо от генерации данных (та включается только явно):
+// на новой БД должно быть кем войти и от чьего имени импортировать статьи (articles.import.owner).
+// Пароль - articles.admin.password; если он не задан, создаётся случайный и один раз пишется в журнал.
+// Уже существующего пользователя с этим именем не трогает.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AdminBootstrap implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminBootstrap.class);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final String username;
+    private final String password;
+
+    public AdminBootstrap(UserRepository userRepository,
+                          PasswordEncoder passwordEncoder,
+                          @Value("${articles.admin.username:admin}") String username,
+                          @Value("${articles.admin.password:}") String password) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.username = username;
+        this.password = password;
+    }
+
+    // Раньше остальных ApplicationRunner: генерации данных и импорту нужен администратор
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.findByUsername(username) != null) {
+            return;
+        }
+        String rawPassword = password;
+        if (rawPassword.isBlank()) {
+            rawPassword = UUID.randomUUID().toString();
+            log.warn("Создан администратор {} со случайным паролем: {} (задайте articles.admin.password)",
+                    username, rawPassword);
+        }
+        User admin = new User();
+        admin.setUsername(username);
+        admin.setEmail(username + "@example.com");
+        admin.setRole(User.Roles.ADMIN_ROLE);
+        admin.setCreatedAt(LocalDateTime.now().withSecond(0).withNano(0));
+        admin.setBio("Администратор системы");
+        admin.setImageUrl("https://static.vecteezy.com/system/resources/thumbnails/019/194/935/small_2x/global-admin-icon-color-outline-vector.jpg");
+        admin.setPassword(passwordEncoder.encode(rawPassword));
+        userRepository.save(admin);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.articles.config;
+
+import com.example.articles.entities.User;
+import com.example.articles.repositories.UserRepository;
+import com.example.articles.service.ArticleImportReader;
+import com.example.articles.service.ArticleImportResult;
+import com.example.articles.service.ArticleImporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Импорт статей из файла при запуске из командной строки:
+// java -jar app.jar --articles.import.file=articles.ndjson --spring.main.web-application-type=none
+// Формат по расширению (.csv - CSV, иначе NDJSON), владелец статей - articles.import.owner. После ошибки
+// повторный запуск с --articles.import.skip=<committed из журнала> продолжает с неё.
+// Код выхода: 0 - всё импортировано, 1 - импорт прерван
+@Component
+@ConditionalOnProperty(name = "articles.import.file")
+public class ArticleImportRunner implements ApplicationRunner {
+
+    private final ArticleImporter articleImporter;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final String owner;
+    private final long skip;
+    private final boolean exit;
+
+    private ArticleImportResult result;
+
+    public ArticleImportRunner(ArticleImporter articleImporter,
+                               UserRepository userRepository,
+                               ObjectMapper objectMapper,
+                               ConfigurableApplicationContext context,
+                               @Value("${articles.import.file}") Path file,
+                               @Value("${articles.import.owner:admin}") String owner,
+                               @Value("${articles.import.skip:0}") long skip,
+                               @Value("${articles.import.exit:true}") boolean exit) {
+        this.articleImporter = articleImporter;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.file = file;
+        this.owner = owner;
+        this.skip = skip;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        User user = userRepository.findByUsername(owner);
+        if (user == null) {
+            throw new IllegalArgumentException("Пользователь " + owner + " не найден (articles.import.owner)");
+        }
+        try (InputStream in = Files.newInputStream(file);
+             ArticleImportReader reader = file.toString().endsWith(".csv")
+                     ? ArticleImportReader.csv(in) : ArticleImportReader.ndjson(in, objectMapper)) {
+            result = articleImporter.importArticles(reader, user.getId(), skip);
+        }
+        if (exit) {
+            // Код выхода для скриптов миграции; контекст закрывается штатно (писатель комментариев дописывает очередь)
+            System.exit(SpringApplication.exit(context, () -> result.isComplete() ? 0 : 1));
+        }
+    }
+
+    public ArticleImportResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.articles.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Кэш справочных данных. Сам кэш (Caffeine, размер и TTL) настраивается в application.properties,
+// статистика публикуется через Actuator как метрики cache.*
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    public static final String TAGS = "tags";
+    public static final String AUTHORS = "authors";
+}
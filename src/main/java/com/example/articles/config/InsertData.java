@@ -2,153 +2,330 @@ package com.example.articles.config;
 
 import com.example.articles.entities.*;
 import com.example.articles.repositories.*;
+import com.example.articles.service.ArticleSearchIndex;
+import com.example.articles.service.ArticleSlugs;
+import com.example.articles.service.TagUsageCounters;
 import com.github.javafaker.Faker;
-import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+// Генерация тестовых данных. Объёмы задаются свойствами articles.seed.* (см. SeedProperties).
+// Строки пишутся через StatelessSession пакетами JDBC (id выделяются последовательностями блоками),
+// порции генерируются параллельно, каждая в своей транзакции.
+// Генерация включается явно (articles.seed.enabled=true) и идёт после старта контекста, а не во время него.
 @Component
-public class InsertData {
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class InsertData implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertData.class);
 
-    private final UserRepository userRepository;
-    private final AuthorRepository authorRepository;
-    private final TagRepository tagRepository;
     private final ArticleRepository articleRepository;
-    private final ArticleCommentRepository articleCommentRepository;
-    private final ArticleFavoriteRepository articleFavoriteRepository;
-
-    public InsertData(UserRepository userRepository,
-                      AuthorRepository authorRepository,
-                      TagRepository tagRepository,
-                      ArticleRepository articleRepository,
-                      ArticleCommentRepository articleCommentRepository,
-                      ArticleFavoriteRepository articleFavoriteRepository) {
-        this.userRepository = userRepository;
-        this.authorRepository = authorRepository;
-        this.tagRepository = tagRepository;
+    private final SeedProperties properties;
+    private final SessionFactory sessionFactory;
+    private final PasswordEncoder passwordEncoder;
+    private final ArticleSearchIndex searchIndex;
+    private final TagUsageCounters tagUsage;
+
+    // Faker не потокобезопасен и дорог в создании - у каждого потока генерации свой,
+    // а его генератор случайных чисел переинициализируется для каждой порции
+    private final ThreadLocal<Generator> generators = ThreadLocal.withInitial(Generator::new);
+
+    public InsertData(ArticleRepository articleRepository,
+                      SeedProperties properties,
+                      EntityManagerFactory entityManagerFactory,
+                      PasswordEncoder passwordEncoder,
+                      ArticleSearchIndex searchIndex,
+                      TagUsageCounters tagUsage) {
         this.articleRepository = articleRepository;
-        this.articleCommentRepository = articleCommentRepository;
-        this.articleFavoriteRepository = articleFavoriteRepository;
+        this.properties = properties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.passwordEncoder = passwordEncoder;
+        this.searchIndex = searchIndex;
+        this.tagUsage = tagUsage;
+    }
+
+    // Генерация ещё идёт (в т.ч. в фоне) - см. SeedHealthIndicator
+    private volatile boolean seeding;
+    private volatile RuntimeException failure;
+
+    public boolean isSeeding() {
+        return seeding;
+    }
+
+    public RuntimeException getFailure() {
+        return failure;
     }
 
-    @PostConstruct
-    public void init() {
-        Faker faker = new Faker(Locale.forLanguageTag("en"));
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
-        // Создаем админа, если его еще нет
-        User adminUser = userRepository.findByUsername("admin");
-        if (adminUser == null) {
-            adminUser = new User();
-            adminUser.setUsername("admin");
-            adminUser.setEmail("admin@example.com");
-            adminUser.setRole(User.Roles.ADMIN_ROLE);
-            adminUser.setCreatedAt(LocalDateTime.now().withSecond(0).withNano(0));
-            adminUser.setBio("Администратор системы");
-            adminUser.setImageUrl("https://static.vecteezy.com/system/resources/thumbnails/019/194/935/small_2x/global-admin-icon-color-outline-vector.jpg");
-
-            // Шифруем пароль
-            String encodedPassword = passwordEncoder.encode("123"); // Замените "123" на свой пароль
-            adminUser.setPassword(encodedPassword);
+    // Сразу после AdminBootstrap, раньше остальных ApplicationRunner и построения поискового индекса
+    // по ApplicationReadyEvent: в синхронном режиме он сразу увидит все данные
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
         }
-        userRepository.save(adminUser);
-
-        // 1. Создаем авторов
-        List<Author> authors = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Author author = new Author();
-            author.setName(faker.name().fullName());
-            author.setBio(faker.lorem().sentence());
-            authors.add(author);
+        seeding = true;
+        if (!properties.isAsync()) {
+            run(this::seed);
+            return;
         }
-        authors = authorRepository.saveAll(authors);
-
-        // 2. Создаем случайных пользователей (не включая admin, если он уже добавлен)
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < 10; i++) {
-            User user = new User();
-            user.setCreatedAt(LocalDateTime.now().minusDays(faker.number().numberBetween(1, 30)).withSecond(0).withNano(0));
-            user.setEmail(faker.internet().emailAddress());
-            user.setUsername(faker.name().username());
-            user.setImageUrl("https://static.vecteezy.com/system/resources/previews/009/292/244/non_2x/default-avatar-icon-of-social-media-user-vector.jpg");
-
-            String encodedPassword = passwordEncoder.encode(faker.internet().password());
-            user.setPassword(encodedPassword);
-
-            user.setBio(faker.lorem().sentence());
-            users.add(user);
+        Thread thread = new Thread(() -> run(() -> {
+            seed();
+            // Индекс строился параллельно с генерацией - добираем статьи, которых он не увидел
+            searchIndex.build();
+        }), "data-seeder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(Runnable work) {
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            failure = e;
+            log.error("Ошибка генерации данных", e);
+            throw e;
+        } finally {
+            seeding = false;
         }
-        userRepository.saveAll(users);
-
-        // 3. Создаем теги
-        List<Tag> tags = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Tag tag = new Tag();
-            tag.setCreatedAt(LocalDateTime.now().minusDays(faker.number().numberBetween(1, 30)).withSecond(0).withNano(0));
-            tag.setName(faker.book().genre());
-            tags.add(tag);
+    }
+
+    void seed() {
+        if (articleRepository.count() > 0) {
+            log.info("Данные уже есть, генерация пропущена");
+            return;
         }
-        tags = tagRepository.saveAll(tags);
-
-        // 4. Создаем статьи (каждая со случайным автором и тегами)
-        List<Article> articles = new ArrayList<>();
-        for (int i = 0; i < 20; i++) {
-            Article article = new Article();
-            article.setCreatedAt(LocalDateTime.now().minusDays(faker.number().numberBetween(1, 30)).withSecond(0).withNano(0));
-            article.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
-            article.setDescription(faker.lorem().sentence());
-            article.setSlug(faker.internet().slug());
-            article.setTitle(faker.book().title());
-            article.setBody(faker.lorem().paragraph(3));
-            Author randomAuthor = authors.get(faker.number().numberBetween(0, authors.size()));
-            article.setAuthor(randomAuthor);
-            Set<Tag> articleTags = new HashSet<>();
-            int numTags = faker.number().numberBetween(1, 3);
-            for (int j = 0; j < numTags; j++) {
-                Tag randomTag = tags.get(faker.number().numberBetween(0, tags.size()));
-                articleTags.add(randomTag);
-            }
-            article.setTags(articleTags);
-            User randomOwner = users.get(faker.number().numberBetween(0, users.size()));
-            article.setOwner(randomOwner);
-            articles.add(article);
+
+        if (properties.getArticles() > 0 && (properties.getUsers() <= 0 || properties.getAuthors() <= 0)) {
+            throw new IllegalArgumentException("Для генерации статей нужны хотя бы один пользователь и один автор");
         }
-        articles = articleRepository.saveAll(articles);
-
-        // 5. Создаем комментарии к статьям (каждый с случайным пользователем)
-        List<ArticleComment> comments = new ArrayList<>();
-        for (Article article : articles) {
-            int commentCount = faker.number().numberBetween(1, 6);
-            for (int i = 0; i < commentCount; i++) {
-                ArticleComment comment = new ArticleComment();
-                comment.setCreatedAt(LocalDateTime.now().minusDays(faker.number().numberBetween(1, 30)).withSecond(0).withNano(0));
-                comment.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
-                comment.setBody(faker.lorem().sentence());
-                comment.setArticle(article);
-                User randomUser = users.get(faker.number().numberBetween(0, users.size()));
-                comment.setUser(randomUser);
-                comments.add(comment);
+
+        long start = System.currentTimeMillis();
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // 1. Авторы и теги - их немного, пишутся одной порцией. Имена уникальны (ux_author_name, ux_tag_name):
+            // повтор из Faker получает номер
+            List<Author> authors = new ArrayList<>();
+            List<Tag> tags = new ArrayList<>();
+            inTransaction(session -> {
+                Generator generator = generator(1, 0);
+                Faker faker = generator.faker;
+                Set<String> authorNames = new HashSet<>();
+                Set<String> tagNames = new HashSet<>();
+                for (int i = 0; i < properties.getAuthors(); i++) {
+                    Author author = new Author();
+                    author.setName(uniqueName(authorNames, faker.name().fullName()));
+                    author.setBio(faker.lorem().sentence());
+                    session.insert(author);
+                    authors.add(author);
+                }
+                for (int i = 0; i < properties.getTags(); i++) {
+                    Tag tag = new Tag();
+                    tag.setCreatedAt(daysAgo(generator.random, 30));
+                    tag.setName(uniqueName(tagNames, faker.book().genre()));
+                    session.insert(tag);
+                    tags.add(tag);
+                }
+            });
+
+            // 2. Пользователи: пароль хэшируется один раз (BCrypt намеренно медленный)
+            String sharedPassword = passwordEncoder.encode(properties.getUserPassword());
+            long[] userIds = new long[properties.getUsers()];
+            inChunks(executor, "пользователей", properties.getUsers(), (from, to) -> inTransaction(session -> {
+                Generator generator = generator(2, from);
+                Faker faker = generator.faker;
+                for (int i = from; i < to; i++) {
+                    User user = new User();
+                    user.setCreatedAt(daysAgo(generator.random, 30));
+                    user.setEmail(faker.internet().emailAddress());
+                    // Номер в имени делает имена уникальными при любом объёме
+                    user.setUsername(faker.name().username() + i);
+                    user.setImageUrl("https://static.vecteezy.com/system/resources/previews/009/292/244/non_2x/default-avatar-icon-of-social-media-user-vector.jpg");
+                    user.setPassword(sharedPassword);
+                    user.setBio(faker.lorem().sentence());
+                    session.insert(user);
+                    userIds[i] = user.getId();
+                }
+            }));
+
+            // 3. Статьи вместе с их тегами, комментариями и избранным; счётчики заполняются сразу
+            inChunks(executor, "статей", properties.getArticles(), (from, to) -> inTransaction(session -> {
+                Generator generator = generator(3, from);
+                Faker faker = generator.faker;
+                Random random = generator.random;
+                List<Article> articles = new ArrayList<>(to - from);
+                StringBuilder tagLinks = new StringBuilder();
+                for (int i = from; i < to; i++) {
+                    Article article = new Article();
+                    article.setCreatedAt(daysAgo(random, 30));
+                    article.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
+                    article.setDescription(faker.lorem().sentence());
+                    article.setTitle(faker.book().title());
+                    // Заголовки повторяются; номер статьи делает slug уникальным без проверок в БД (база пуста)
+                    article.setSlug(ArticleSlugs.slugify(article.getTitle()) + "-" + (i + 1));
+                    article.setBody(faker.lorem().paragraph(3));
+                    article.setAuthor(authors.get(random.nextInt(authors.size())));
+                    article.setOwner(userRef(userIds[random.nextInt(userIds.length)]));
+                    article.setCommentCount(properties.getMaxCommentsPerArticle() > 0
+                            ? random.nextInt(1, properties.getMaxCommentsPerArticle() + 1) : 0);
+                    article.setFavoriteCount(random.nextInt(properties.getMaxFavoritesPerArticle() + 1));
+                    session.insert(article);
+                    articles.add(article);
+
+                    Set<Long> articleTags = new HashSet<>();
+                    int numTags = random.nextInt(1, 3);
+                    for (int j = 0; j < numTags && !tags.isEmpty(); j++) {
+                        articleTags.add(tags.get(random.nextInt(tags.size())).getId());
+                    }
+                    for (Long tagId : articleTags) {
+                        tagLinks.append(tagLinks.isEmpty() ? "" : ",")
+                                .append('(').append(article.getId()).append(',').append(tagId).append(')');
+                    }
+                }
+
+                for (Article article : articles) {
+                    for (long i = 0; i < article.getCommentCount(); i++) {
+                        ArticleComment comment = new ArticleComment();
+                        comment.setCreatedAt(daysAgo(random, 30));
+                        comment.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
+                        comment.setBody(faker.lorem().sentence());
+                        comment.setArticle(article);
+                        comment.setUser(userRef(userIds[random.nextInt(userIds.length)]));
+                        session.insert(comment);
+                    }
+                }
+                for (Article article : articles) {
+                    for (long i = 0; i < article.getFavoriteCount(); i++) {
+                        ArticleFavorite favorite = new ArticleFavorite();
+                        favorite.setCreatedAt(daysAgo(random, 30));
+                        favorite.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
+                        favorite.setArticle(article);
+                        favorite.setUser(userRef(userIds[random.nextInt(userIds.length)]));
+                        session.insert(favorite);
+                    }
+                }
+
+                // Связи с тегами - одним многострочным INSERT на порцию (значения - сгенерированные id)
+                if (!tagLinks.isEmpty()) {
+                    session.createNativeMutationQuery("insert into article_tag (article_id, tag_id) values " + tagLinks)
+                            .executeUpdate();
+                }
+            }));
+        } finally {
+            executor.shutdown();
+        }
+        // Связи с тегами записаны напрямую - статистика тегов строится по ним одним проходом
+        tagUsage.reconcile();
+        log.info("Сгенерировано за {} мс: {} пользователей, {} авторов, {} тегов, {} статей",
+                System.currentTimeMillis() - start, properties.getUsers(), properties.getAuthors(),
+                properties.getTags(), properties.getArticles());
+    }
+
+    private interface Chunk {
+        void generate(int from, int to);
+    }
+
+    // Делит [0, total) на порции по batchSize и генерирует их параллельно, сообщая о ходе работы
+    private void inChunks(ExecutorService executor, String what, int total, Chunk chunk) {
+        int batchSize = properties.getBatchSize();
+        int chunks = (total + batchSize - 1) / batchSize;
+        int reportEvery = Math.max(1, chunks / 10);
+        AtomicLong done = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < total; from += batchSize) {
+            int start = from;
+            int end = Math.min(from + batchSize, total);
+            futures.add(executor.submit(() -> {
+                chunk.generate(start, end);
+                long finished = done.incrementAndGet();
+                if (finished % reportEvery == 0 || finished == chunks) {
+                    log.info("Генерация {}: {} из {}", what, Math.min(finished * batchSize, total), total);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Генерация данных прервана", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Ошибка генерации " + what, e.getCause());
         }
-        articleCommentRepository.saveAll(comments);
-
-        // 6. Создаем избранное для статей (каждое с случайным пользователем)
-        List<ArticleFavorite> favorites = new ArrayList<>();
-        for (Article article : articles) {
-            int favCount = faker.number().numberBetween(0, 4);
-            for (int i = 0; i < favCount; i++) {
-                ArticleFavorite favorite = new ArticleFavorite();
-                favorite.setCreatedAt(LocalDateTime.now().minusDays(faker.number().numberBetween(1, 30)).withSecond(0).withNano(0));
-                favorite.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
-                favorite.setArticle(article);
-                User randomUser = users.get(faker.number().numberBetween(0, users.size()));
-                favorite.setUser(randomUser);
-                favorites.add(favorite);
+    }
+
+    // Порция пишется пакетами JDBC без контекста персистентности (память не растёт с объёмом)
+    private void inTransaction(Consumer<StatelessSession> work) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(properties.getBatchSize());
+            Transaction transaction = session.beginTransaction();
+            try {
+                work.accept(session);
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
             }
         }
-        articleFavoriteRepository.saveAll(favorites);
+    }
+
+    // Ссылка на уже сохранённого пользователя без его загрузки
+    private static User userRef(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    // "Имя", затем "Имя 2", "Имя 3", ...
+    private static String uniqueName(Set<String> used, String name) {
+        String candidate = name;
+        for (int n = 2; !used.add(candidate); n++) {
+            candidate = name + " " + n;
+        }
+        return candidate;
+    }
+
+    private static LocalDateTime daysAgo(Random random, int maxDays) {
+        return LocalDateTime.now()
+                .minusMinutes(random.nextInt(24 * 60, maxDays * 24 * 60))
+                .withSecond(0).withNano(0);
+    }
+
+    // Генератор текущего потока, настроенный на порцию: при заданном articles.seed.random-seed
+    // содержимое порции не зависит от того, какой поток и когда её генерирует
+    private Generator generator(int step, int from) {
+        Generator generator = generators.get();
+        Long seed = properties.getRandomSeed();
+        generator.random.setSeed(seed != null
+                ? seed * 31 + step * 1_000_000_007L + from
+                : ThreadLocalRandom.current().nextLong());
+        return generator;
+    }
+
+    private static final class Generator {
+        final Random random = new Random();
+        final Faker faker = new Faker(Locale.forLanguageTag("en"), random);
     }
 }
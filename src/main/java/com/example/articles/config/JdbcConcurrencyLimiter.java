@@ -0,0 +1,140 @@
+package com.example.articles.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Ограничитель одновременных обращений к БД перед пулом Hikari (articles.jdbc.limiter.enabled=true).
+// В режиме виртуальных потоков запросы больше не ограничены пулом потоков Tomcat - тысячи из них могут
+// одновременно прийти за соединением. Лишние ждут разрешения семафора в порядке очереди (ожидание
+// на семафоре не занимает поток-носитель) и получают SQLTransientConnectionException по таймауту,
+// а БД видит не больше max-concurrency соединений (по умолчанию - размер пула Hikari).
+@Component
+@ConditionalOnProperty(name = "articles.jdbc.limiter.enabled", havingValue = "true")
+public class JdbcConcurrencyLimiter implements BeanPostProcessor {
+
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+
+    public JdbcConcurrencyLimiter(@Value("${articles.jdbc.limiter.max-concurrency:0}") int maxConcurrency,
+                                  @Value("${articles.jdbc.limiter.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            int permits = maxConcurrency > 0 ? maxConcurrency
+                    : dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+            return new LimitedDataSource(dataSource, permits, acquireTimeout);
+        }
+        return bean;
+    }
+
+    public static final class LimitedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final int limit;
+        private final Duration acquireTimeout;
+
+        public LimitedDataSource(DataSource target, int limit, Duration acquireTimeout) {
+            super(target);
+            this.permits = new Semaphore(limit, true);
+            this.limit = limit;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        // Сколько потоков ждут соединения
+        public int getWaiting() {
+            return permits.getQueueLength();
+        }
+
+        public int getAvailable() {
+            return permits.availablePermits();
+        }
+
+        private void acquire() throws SQLException {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Прервано ожидание соединения с БД", e);
+            }
+            if (!acquired) {
+                throw new SQLTransientConnectionException("Нет свободного соединения с БД за " + acquireTimeout
+                        + " (одновременно разрешено " + limit + ")");
+            }
+        }
+
+        // Разрешение возвращается при закрытии соединения (возврате его в пул), ровно один раз
+        private Connection releasingOnClose(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                    try {
+                        return invoke(connection, method, args);
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                }
+                return invoke(connection, method, args);
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler);
+        }
+
+        private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
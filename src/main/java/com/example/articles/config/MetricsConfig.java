@@ -0,0 +1,20 @@
+package com.example.articles.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Таймеры @Timed на контроллерах и сервисах: время каждого метода с тегами class/method/exception.
+// Метрики (вместе с hikaricp.* и hibernate.*) отдаются из памяти на /actuator/prometheus
+@Configuration
+public class MetricsConfig {
+
+    public static final String CONTROLLER_TIMER = "articles.controller";
+    public static final String SERVICE_TIMER = "articles.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
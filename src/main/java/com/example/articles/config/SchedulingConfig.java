@@ -0,0 +1,10 @@
+package com.example.articles.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Фоновые задачи: сброс счётчиков статей в БД и их периодическая сверка (см. ArticleCounters)
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
@@ -1,15 +1,27 @@
 package com.example.articles.config;
 
 import com.example.articles.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @EnableWebSecurity
 @Configuration
@@ -21,6 +33,54 @@ public class SecurityConfig {
         this.userDetailsService = userDetailsService;
     }
 
+    // Выгрузка для Prometheus: HTTP Basic с учётной записью сборщика из настроек (articles.metrics.scrape-*),
+    // без сессий и без чтения пользователей из БД - сбор читает только память. Пароль задаётся в формате
+    // хранения Spring Security: {bcrypt}<хэш> или {noop}<пароль>. Без пароля сборщика выгрузка недоступна
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(
+            HttpSecurity http,
+            @Value("${articles.metrics.scrape-username:prometheus}") String scrapeUsername,
+            @Value("${articles.metrics.scrape-password:}") String scrapePassword) throws Exception {
+        List<UserDetails> scrapers = new ArrayList<>();
+        if (StringUtils.hasText(scrapePassword)) {
+            scrapers.add(User.withUsername(scrapeUsername).password(scrapePassword).roles("METRICS").build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(scrapers));
+
+        http
+                .securityMatcher("/actuator/prometheus")
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("METRICS"))
+                .authenticationManager(new ProviderManager(provider))
+                .httpBasic(basic -> { })
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
+    // JSON API для скриптов и интеграций: HTTP Basic с учётными записями приложения, без сессий и CSRF
+    // (нет cookie - нечего подделывать). Чтение открыто так же, как страницы;
+    // полная выгрузка и импорт - только администраторам
+    @Bean
+    @Order(2)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(HttpMethod.GET, "/api/articles/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/articles/import").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/articles", "/api/articles/**").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .httpBasic(basic -> { })
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -30,6 +90,10 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/articles", "/articles/**").permitAll()
                         // Разрешаем доступ к страницам логина, регистрации и статическим ресурсам
                         .requestMatchers("/login", "/registration", "/css/**", "/js/**", "/images/**").permitAll()
+                        // Метрики и состояние кэшей - только администраторам, health - всем
+                        // (выгрузка для Prometheus - в prometheusFilterChain)
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Все остальные запросы требуют аутентификации
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,27 @@
+package com.example.articles.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Пока генерируются тестовые данные, приложение не готово к нагрузке: /actuator/health - OUT_OF_SERVICE
+@Component
+public class SeedHealthIndicator implements HealthIndicator {
+
+    private final InsertData insertData;
+
+    public SeedHealthIndicator(InsertData insertData) {
+        this.insertData = insertData;
+    }
+
+    @Override
+    public Health health() {
+        if (insertData.getFailure() != null) {
+            return Health.down(insertData.getFailure()).build();
+        }
+        if (insertData.isSeeding()) {
+            return Health.outOfService().withDetail("seeding", true).build();
+        }
+        return Health.up().build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.articles.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Объёмы и режим генерации тестовых данных (articles.seed.* в application.properties).
+// Значения по умолчанию - небольшой демонстрационный набор; для нагрузочных тестов
+// их увеличивают до сотен тысяч и миллионов строк.
+@Component
+@ConfigurationProperties(prefix = "articles.seed")
+public class SeedProperties {
+
+    // Генерация только по явному включению: обычный старт не тратит время на BCrypt и вставку данных
+    private boolean enabled;
+    // Генерировать в фоне, не задерживая готовность приложения
+    private boolean async = true;
+    private int users = 10;
+    private int authors = 5;
+    private int tags = 5;
+    private int articles = 20;
+    private int maxCommentsPerArticle = 5;
+    private int maxFavoritesPerArticle = 3;
+    // Пароль всех сгенерированных пользователей (хэшируется один раз)
+    private String userPassword = "password";
+    // Строк в одной транзакции/JDBC-пакете
+    private int batchSize = 500;
+    // 0 - по числу процессоров
+    private int threads = 0;
+    // Если задан, содержимое данных воспроизводимо от запуска к запуску (id могут отличаться
+    // при нескольких потоках - порции получают блоки id в порядке завершения)
+    private Long randomSeed;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    public boolean isAsync() {
+        return async;
+    }
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+    public int getUsers() {
+        return users;
+    }
+    public void setUsers(int users) {
+        this.users = users;
+    }
+    public int getAuthors() {
+        return authors;
+    }
+    public void setAuthors(int authors) {
+        this.authors = authors;
+    }
+    public int getTags() {
+        return tags;
+    }
+    public void setTags(int tags) {
+        this.tags = tags;
+    }
+    public int getArticles() {
+        return articles;
+    }
+    public void setArticles(int articles) {
+        this.articles = articles;
+    }
+    public int getMaxCommentsPerArticle() {
+        return maxCommentsPerArticle;
+    }
+    public void setMaxCommentsPerArticle(int maxCommentsPerArticle) {
+        this.maxCommentsPerArticle = maxCommentsPerArticle;
+    }
+    public int getMaxFavoritesPerArticle() {
+        return maxFavoritesPerArticle;
+    }
+    public void setMaxFavoritesPerArticle(int maxFavoritesPerArticle) {
+        this.maxFavoritesPerArticle = maxFavoritesPerArticle;
+    }
+    public String getUserPassword() {
+        return userPassword;
+    }
+    public void setUserPassword(String userPassword) {
+        this.userPassword = userPassword;
+    }
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    public int getThreads() {
+        return threads;
+    }
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.articles.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Число SQL-запросов на HTTP-запрос: метрика articles.sql.statements (по шаблону URI) и предупреждение
+// в журнале со списком запросов, если превышен бюджет articles.sql.statement-budget - так N+1 из шаблона
+// виден сразу, а не по медленным страницам. Точные значения для страниц закреплены в тестах.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+
+    public SqlBudgetFilter(SqlStatementCounter counter,
+                           MeterRegistry meterRegistry,
+                           @Value("${articles.sql.statement-budget:10}") int budget) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Recording recording = counter.start()) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                report(request, recording);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.Recording recording) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("articles.sql.statements")
+                .description("SQL-запросов на один HTTP-запрос")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(recording.getCount());
+        if (recording.getCount() > budget) {
+            log.warn("{} {} выполнил {} SQL-запросов при бюджете {}: {}", request.getMethod(),
+                    request.getRequestURI(), recording.getCount(), budget, recording.getStatements());
+        }
+    }
+}
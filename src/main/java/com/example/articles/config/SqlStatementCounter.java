@@ -0,0 +1,79 @@
+package com.example.articles.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Подсчёт SQL-запросов, которые Hibernate готовит в текущем потоке (HQL, Criteria, native, загрузка
+// ленивых ассоциаций из шаблона). Считает только внутри start()/close(): вне записи - один ThreadLocal.get().
+// Записи вкладываются: запрос внутри HTTP-запроса внутри теста учитывается во всех открытых записях.
+// Запросы через JdbcTemplate (сброс счётчиков статей) Hibernate не видит и не считаются.
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    // Сколько текстов запросов хранить для журнала; количество считается всегда полностью
+    private static final int MAX_KEPT_STATEMENTS = 50;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Recording recording = CURRENT.get(); recording != null; recording = recording.parent) {
+            recording.record(sql);
+        }
+        return sql;
+    }
+
+    // Начать запись в текущем потоке; закрывать в том же потоке (try-with-resources)
+    public Recording start() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final Recording parent;
+        private final List<String> statements = new ArrayList<>();
+        private int count;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            count++;
+            if (statements.size() < MAX_KEPT_STATEMENTS) {
+                statements.add(sql);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // Первые MAX_KEPT_STATEMENTS запросов в порядке выполнения
+        public List<String> getStatements() {
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.articles.config;
+
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Профиль fast-startup (spring.main.lazy-initialization=true): бины создаются при первом обращении.
+// Исключения создаются при старте, как обычно: веб-слой (контроллеры, фильтры, разбор маршрутов и шаблонов) -
+// иначе его вместе со всеми сервисами и репозиториями создавал бы первый запрос, - и бины с @Scheduled,
+// задачи которых регистрируются только при создании бина. Лениво остаётся то, что нужно не каждому запуску:
+// actuator, импорт и выгрузка, генерация данных и т.п.
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerWebAndScheduledBeans() {
+        return (beanName, beanDefinition, beanType) -> isWeb(beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean isWeb(Class<?> type) {
+        return AnnotatedElementUtils.hasAnnotation(type, Controller.class)
+                || AnnotatedElementUtils.hasAnnotation(type, ControllerAdvice.class)
+                || Filter.class.isAssignableFrom(type)
+                || SecurityFilterChain.class.isAssignableFrom(type)
+                || HandlerMapping.class.isAssignableFrom(type)
+                || HandlerAdapter.class.isAssignableFrom(type)
+                || ViewResolver.class.isAssignableFrom(type);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> type) {
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type, method -> scheduled.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return scheduled.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.articles.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+
+// Режим выполнения запросов. По умолчанию - пул платформенных потоков Tomcat; профиль virtual-threads
+// (spring.threads.virtual.enabled=true) переводит на виртуальные потоки обработку HTTP-запросов,
+// @Scheduled и @Async-задачи (applicationTaskExecutor) - это делает сам Spring Boot, но только на Java 21+.
+// Обращения к БД в этом режиме ограничивает JdbcConcurrencyLimiter, закрепления потоков ищет PinnedThreadMonitor
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final boolean virtualThreads;
+
+    public ThreadingConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreads && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true не действует на Java {}: запросы выполняются "
+                    + "на платформенных потоках, нужна Java 21+", javaVersion);
+        } else {
+            log.info("Запросы выполняются на {} потоках", virtualThreads ? "виртуальных" : "платформенных");
+        }
+    }
+
+    // Очередь к БД: сколько потоков ждут разрешения и сколько разрешений свободно
+    @Bean
+    @ConditionalOnProperty(name = "articles.jdbc.limiter.enabled", havingValue = "true")
+    public MeterBinder jdbcLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof JdbcConcurrencyLimiter.LimitedDataSource limited) {
+                Gauge.builder("articles.jdbc.limiter.waiting", limited, JdbcConcurrencyLimiter.LimitedDataSource::getWaiting)
+                        .description("Потоки, ожидающие соединения с БД")
+                        .register(registry);
+                Gauge.builder("articles.jdbc.limiter.available", limited, JdbcConcurrencyLimiter.LimitedDataSource::getAvailable)
+                        .description("Свободные разрешения на соединение с БД")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.articles.controllers;
+
+import com.example.articles.config.CurrentUser;
+import com.example.articles.config.MetricsConfig;
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.ArticleDocument;
+import com.example.articles.service.ArticleExporter;
+import com.example.articles.service.ArticleImportReader;
+import com.example.articles.service.ArticleImportResult;
+import com.example.articles.service.ArticleImporter;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.AuthenticatedUser;
+import com.example.articles.service.CursorPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+// JSON API для интеграций: те же страницы карточек с курсорами, что и в ArticleController, статья целиком
+// и полная выгрузка в NDJSON (одна статья - одна строка), пакетный импорт из NDJSON или CSV
+@RestController
+@Timed(MetricsConfig.CONTROLLER_TIMER)
+@RequestMapping("/api/articles")
+public class ArticleApiController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private final ArticleService articleService;
+    private final ArticleExporter articleExporter;
+    private final ArticleImporter articleImporter;
+    private final ObjectMapper objectMapper;
+
+    public ArticleApiController(ArticleService articleService,
+                                ArticleExporter articleExporter,
+                                ArticleImporter articleImporter,
+                                ObjectMapper objectMapper) {
+        this.articleService = articleService;
+        this.articleExporter = articleExporter;
+        this.articleImporter = articleImporter;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public CursorPage<ArticleCard> listArticles(@RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "size", defaultValue = "20") int size) {
+        return articleService.getArticleCards(cursor, size);
+    }
+
+    @GetMapping("/{id}")
+    public ArticleDocument getArticle(@PathVariable Long id) {
+        return articleService.getArticleDocument(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found with id " + id));
+    }
+
+    @GetMapping("/by-author/{authorId}")
+    public CursorPage<ArticleCard> getArticlesByAuthor(@PathVariable Long authorId,
+                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "size", defaultValue = "20") int size) {
+        return articleService.getArticleCardsByAuthor(authorId, cursor, size);
+    }
+
+    @GetMapping("/by-tag/{tagId}")
+    public CursorPage<ArticleCard> getArticlesByTag(@PathVariable Long tagId,
+                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                    @RequestParam(value = "size", defaultValue = "20") int size) {
+        return articleService.getArticleCardsByTag(tagId, cursor, size);
+    }
+
+    @GetMapping("/search")
+    public CursorPage<ArticleCard> searchArticles(@RequestParam("query") String query,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        return articleService.searchArticleCards(query, cursor, size);
+    }
+
+    // Все статьи по возрастанию id. Ответ пишется в поток по мере чтения из БД (см. ArticleExporter):
+    // ни список статей, ни весь ответ в памяти не собираются, клиент получает первые строки сразу
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
+        ObjectWriter writer = objectMapper.writerFor(ArticleDocument.class);
+        StreamingResponseBody body = out -> articleExporter.export(document -> {
+            try {
+                out.write(writer.writeValueAsBytes(document));
+                out.write('\n');
+            } catch (IOException e) {
+                // Клиент оборвал соединение - прекращаем чтение из БД
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"articles.ndjson\"")
+                .body(body);
+    }
+
+    // Импорт статей (администратор - владелец статей). Тело читается потоком прямо из запроса, без буферизации.
+    // Ошибка посреди файла - 422 с числом сохранённых записей: повторный запрос с skip=committed продолжит с неё
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV})
+    public ResponseEntity<ArticleImportResult> importArticles(@RequestParam(value = "skip", defaultValue = "0") long skip,
+                                                              @CurrentUser AuthenticatedUser currentUser,
+                                                              HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(CSV));
+        ArticleImportResult result;
+        try (ArticleImportReader reader = csv ? ArticleImportReader.csv(in) : ArticleImportReader.ndjson(in, objectMapper)) {
+            result = articleImporter.importArticles(reader, currentUser.getId(), skip);
+        }
+        return result.isComplete() ? ResponseEntity.ok(result) : ResponseEntity.unprocessableEntity().body(result);
+    }
+
+    // Неверный курсор или параметры - ошибка клиента
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+}
@@ -1,79 +1,106 @@
 package com.example.articles.controllers;
 
+import com.example.articles.config.CurrentUser;
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.*;
-import com.example.articles.repositories.ArticleCommentRepository;
-import com.example.articles.repositories.UserRepository;
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.ReferenceItem;
 import com.example.articles.service.ArticleService;
+import com.example.articles.service.ArticleVersions;
+import com.example.articles.service.AuthenticatedUser;
 import com.example.articles.service.AuthorService;
+import com.example.articles.service.CommentQueueFullException;
+import com.example.articles.service.CommentService;
+import com.example.articles.service.CommentSubmission;
+import com.example.articles.service.CursorPage;
 import com.example.articles.service.TagService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Controller
+@Timed(MetricsConfig.CONTROLLER_TIMER)
 @RequestMapping("/articles")
 public class ArticleController {
 
+    // Сколько комментариев показывать сразу и догружать по кнопке "Показать ещё"
+    private static final int COMMENTS_PAGE_SIZE = 20;
+
     private final ArticleService articleService;
     private final AuthorService authorService;
     private final TagService tagService;
-    private final UserRepository userRepository;
-    private final ArticleCommentRepository articleCommentRepository;
+    private final CommentService commentService;
+    private final ArticleVersions articleVersions;
 
     @Autowired
     public ArticleController(ArticleService articleService,
                              AuthorService authorService,
                              TagService tagService,
-                             UserRepository userRepository,
-                             ArticleCommentRepository articleCommentRepository) {
+                             CommentService commentService,
+                             ArticleVersions articleVersions) {
         this.articleService = articleService;
         this.authorService = authorService;
         this.tagService = tagService;
-        this.userRepository = userRepository;
-        this.articleCommentRepository = articleCommentRepository;
+        this.commentService = commentService;
+        this.articleVersions = articleVersions;
     }
 
+    // currentUser берётся из сессии (principal), для гостя - null
     @GetMapping
-    public String listArticles(Model model) {
-        List<Article> articles = articleService.getAllArticles();
-        model.addAttribute("articles", articles);
-
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        // Если пользователь не аутентифицирован, либо это anonymousUser – передаём null
-        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
-            model.addAttribute("currentUser", null);
-        } else {
-            // Иначе находим пользователя по имени
-            User currentUser = userRepository.findByUsername(auth.getName());
-            model.addAttribute("currentUser", currentUser);
+    public String listArticles(@RequestParam(value = "cursor", required = false) String cursor,
+                               @RequestParam(value = "size", defaultValue = "20") int size,
+                               @CurrentUser AuthenticatedUser currentUser,
+                               WebRequest request,
+                               HttpServletResponse response,
+                               Model model) {
+        CursorPage<ArticleCard> page = articleService.getArticleCardsWithoutTags(cursor, size);
+        if (notModified(request, response, articleVersions.forPage(page, currentUser), currentUser)) {
+            return null;
         }
+        articleService.fillTags(page.getItems());
+        addPage(model, page);
+        model.addAttribute("currentUser", currentUser);
         return "articles/list";
     }
 
     // Отображение деталей статьи
     @GetMapping("/{id}")
-    public String articleDetails(@PathVariable Long id, Model model) {
+    public String articleDetails(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser,
+                                 WebRequest request, HttpServletResponse response, Model model) {
         Article article = articleService.getArticleById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Article not found with id " + id));
-        model.addAttribute("article", article);
+        return details(article, currentUser, request, response, model);
+    }
 
-        // Добавляем текущего пользователя (или null, если гость)
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = null;
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            currentUser = userRepository.findByUsername(auth.getName());
-        }
-        model.addAttribute("currentUser", currentUser);
+    // Публичная ссылка на статью: slug -> id через кэш, дальше та же страница, что и по id (с тем же ETag)
+    @GetMapping("/s/{slug}")
+    public String articleDetailsBySlug(@PathVariable String slug, @CurrentUser AuthenticatedUser currentUser,
+                                       WebRequest request, HttpServletResponse response, Model model) {
+        Article article = articleService.getArticleBySlug(slug)
+                .orElseThrow(() -> new IllegalArgumentException("Article not found with slug " + slug));
+        return details(article, currentUser, request, response, model);
+    }
 
-        return "articles/details";
+    // Следующая страница комментариев: фрагмент со строками списка и кнопкой "Показать ещё"
+    @GetMapping("/{id}/comments")
+    public String moreComments(@PathVariable Long id,
+                               @RequestParam(value = "cursor", required = false) String cursor,
+                               Model model) {
+        // Статья не загружается: фрагменту нужен только её id для ссылки на следующую страницу
+        model.addAttribute("articleId", id);
+        model.addAttribute("comments", commentService.getComments(id, cursor, COMMENTS_PAGE_SIZE));
+        return "articles/comments :: page";
     }
 
     // Форма для создания новой статьи
@@ -89,41 +116,21 @@ public class ArticleController {
     @PostMapping
     public String createArticle(@ModelAttribute("article") Article article,
                                 @RequestParam("authorId") Long authorId,
-                                @RequestParam("tagIds") List<Long> tagIds) {
-        // Получаем автора по id и устанавливаем
-        Author author = authorService.getAuthorById(authorId);
-        article.setAuthor(author);
-
-        // Получаем выбранные теги
-        Set<Tag> tags = new HashSet<>();
-        for (Long tagId : tagIds) {
-            Tag tag = tagService.getTagById(tagId);
-            tags.add(tag);
-        }
-        article.setTags(tags);
-
-        // Получаем текущего аутентифицированного пользователя и устанавливаем как владельца
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User currentUser = userRepository.findByUsername(username);
-        article.setOwner(currentUser);
-
-        articleService.createArticle(article);
+                                @RequestParam("tagIds") List<Long> tagIds,
+                                @CurrentUser AuthenticatedUser currentUser) {
+        // Автор, теги и владелец (текущий пользователь) разрешаются сервисом по id в одной транзакции
+        articleService.createArticle(article, authorId, tagIds, currentUser.getId());
         return "redirect:/articles";
     }
 
     // Форма для редактирования статьи
     @GetMapping("/edit/{id}")
-    public String showEditForm(@PathVariable Long id, Model model) {
+    public String showEditForm(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser, Model model) {
         Article article = articleService.getArticleById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Article not found with id " + id));
 
         // Проверяем, имеет ли текущий пользователь право редактировать статью
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User currentUser = userRepository.findByUsername(username);
-        if (!currentUser.getRole().equals(User.Roles.ADMIN_ROLE) &&
-                (article.getOwner() == null || !article.getOwner().getId().equals(currentUser.getId()))) {
+        if (!currentUser.canModify(article.getOwner())) {
             return "redirect:/access-denied";
         }
 
@@ -138,51 +145,32 @@ public class ArticleController {
     public String updateArticle(@PathVariable Long id,
                                 @ModelAttribute("article") Article updatedArticle,
                                 @RequestParam("authorId") Long authorId,
-                                @RequestParam("tagIds") List<Long> tagIds) {
+                                @RequestParam("tagIds") List<Long> tagIds,
+                                @CurrentUser AuthenticatedUser currentUser) {
         // Получаем существующую статью для проверки прав
         Article existingArticle = articleService.getArticleById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Article not found with id " + id));
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User currentUser = userRepository.findByUsername(username);
-
-        if (!currentUser.getRole().equals(User.Roles.ADMIN_ROLE) &&
-                (existingArticle.getOwner() == null || !existingArticle.getOwner().getId().equals(currentUser.getId()))) {
+        if (!currentUser.canModify(existingArticle.getOwner())) {
             return "redirect:/access-denied";
         }
 
-        // Устанавливаем автора
-        Author author = authorService.getAuthorById(authorId);
-        updatedArticle.setAuthor(author);
-
-        // Устанавливаем теги
-        Set<Tag> tags = new HashSet<>();
-        for (Long tagId : tagIds) {
-            Tag tag = tagService.getTagById(tagId);
-            tags.add(tag);
-        }
-        updatedArticle.setTags(tags);
-
         // Сохраняем владельца из существующей статьи, чтобы не перезаписывать его
         updatedArticle.setOwner(existingArticle.getOwner());
 
-        // В сервисном слое обновляем только скалярные поля и ассоциации, оставляя коллекции (comments, favorites) неизменными
-        articleService.updateArticle(id, updatedArticle);
+        // В сервисном слое обновляем только скалярные поля и ассоциации, оставляя коллекции (comments, favorites) неизменными;
+        // автор и теги разрешаются по id в одной транзакции
+        articleService.updateArticle(id, updatedArticle, authorId, tagIds);
         return "redirect:/articles";
     }
 
     // Удаление статьи
     @GetMapping("/delete/{id}")
-    public String deleteArticle(@PathVariable Long id) {
+    public String deleteArticle(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         Article article = articleService.getArticleById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Article not found with id " + id));
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        User currentUser = userRepository.findByUsername(username);
-        if (!currentUser.getRole().equals(User.Roles.ADMIN_ROLE) &&
-                (article.getOwner() == null || !article.getOwner().getId().equals(currentUser.getId()))) {
+        if (!currentUser.canModify(article.getOwner())) {
             return "redirect:/access-denied";
         }
 
@@ -191,77 +179,127 @@ public class ArticleController {
     }
 
     @PostMapping("/{id}/comments")
-    public String addComment(@PathVariable Long id, @RequestParam("body") String body) {
-        // Получаем статью по id
-        Article article = articleService.getArticleById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Article not found with id " + id));
-
-        // Получаем текущего пользователя
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+    public String addComment(@PathVariable Long id, @RequestParam("body") String body,
+                             @CurrentUser AuthenticatedUser currentUser,
+                             HttpServletResponse response) {
+        if (currentUser == null) {
             return "redirect:/login";
         }
-        User currentUser = userRepository.findByUsername(auth.getName());
 
-        // Создаем новый комментарий
-        ArticleComment comment = new ArticleComment();
-        comment.setBody(body);
-        comment.setArticle(article);
-        comment.setUser(currentUser);
-        comment.setCreatedAt(LocalDateTime.now().withSecond(0).withNano(0));
-        comment.setUpdatedAt(LocalDateTime.now().withSecond(0).withNano(0));
-
-        articleCommentRepository.save(comment);
-
-        // При необходимости можно обновить коллекцию комментариев статьи,
-        // но если связь настроена с cascade, то комментарий будет автоматически подхвачен
-        return "redirect:/articles/" + id;
+        // Сервис проверяет, что статья существует, и ставит комментарий в очередь записи.
+        // Если запись не подтвердилась вовремя или не удалась, страница статьи говорит об этом автору
+        CommentSubmission submission;
+        try {
+            submission = commentService.submitComment(id, currentUser.getId(), body);
+        } catch (CommentQueueFullException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return switch (submission) {
+            case SAVED -> "redirect:/articles/" + id;
+            case PENDING -> "redirect:/articles/" + id + "?comment=pending";
+            case FAILED -> "redirect:/articles/" + id + "?comment=failed";
+        };
     }
 
     @GetMapping("/search")
-    public String searchArticles(@RequestParam("query") String query, Model model) {
-        List<Article> articles = articleService.searchArticles(query);
-        List<Author> authors = authorService.getAllAuthors();  // Получаем всех авторов
-        List<Tag> tags = tagService.getAllTags();  // Получаем все теги
+    public String searchArticles(@RequestParam("query") String query,
+                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                 @RequestParam(value = "size", defaultValue = "20") int size,
+                                 @CurrentUser AuthenticatedUser currentUser,
+                                 Model model) {
+        addPage(model, articleService.searchArticleCards(query, cursor, size));
+        List<ReferenceItem> authors = authorService.getAllAuthors();  // Получаем всех авторов
+        List<ReferenceItem> tags = tagService.getAllTags();  // Получаем все теги
 
-        model.addAttribute("articles", articles);
         model.addAttribute("authors", authors);  // Передаем авторов в шаблон
         model.addAttribute("tags", tags);  // Передаем теги в шаблон
         model.addAttribute("searchQuery", query);  // Передаем запрос в шаблон
+        model.addAttribute("currentUser", currentUser);
         return "articles/list";  // Перенаправляем на страницу списка статей
     }
 
     // Показать статьи по автору
     @GetMapping("/by-author/{authorId}")
-    public String getArticlesByAuthor(@PathVariable Long authorId, Model model) {
-        List<Article> articles = articleService.getArticlesByAuthor(authorId);
-        model.addAttribute("articles", articles);
-
-        // Добавляем текущего пользователя в модель
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = null;
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            currentUser = userRepository.findByUsername(auth.getName());
+    public String getArticlesByAuthor(@PathVariable Long authorId,
+                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                      @RequestParam(value = "size", defaultValue = "20") int size,
+                                      @CurrentUser AuthenticatedUser currentUser,
+                                      WebRequest request,
+                                      HttpServletResponse response,
+                                      Model model) {
+        CursorPage<ArticleCard> page = articleService.getArticleCardsByAuthorWithoutTags(authorId, cursor, size);
+        if (notModified(request, response, articleVersions.forPage(page, currentUser), currentUser)) {
+            return null;
         }
+        articleService.fillTags(page.getItems());
+        addPage(model, page);
         model.addAttribute("currentUser", currentUser);
-
         return "articles/list"; // Этот шаблон будет отображать список статей
     }
 
     // Показать статьи по тегу
     @GetMapping("/by-tag/{tagId}")
-    public String getArticlesByTag(@PathVariable Long tagId, Model model) {
-        List<Article> articles = articleService.getArticlesByTag(tagId);
-        model.addAttribute("articles", articles);
-
-        // Добавляем текущего пользователя в модель
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = null;
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            currentUser = userRepository.findByUsername(auth.getName());
+    public String getArticlesByTag(@PathVariable Long tagId,
+                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                   @RequestParam(value = "size", defaultValue = "20") int size,
+                                   @CurrentUser AuthenticatedUser currentUser,
+                                   WebRequest request,
+                                   HttpServletResponse response,
+                                   Model model) {
+        CursorPage<ArticleCard> page = articleService.getArticleCardsByTagWithoutTags(tagId, cursor, size);
+        if (notModified(request, response, articleVersions.forPage(page, currentUser), currentUser)) {
+            return null;
         }
+        articleService.fillTags(page.getItems());
+        addPage(model, page);
         model.addAttribute("currentUser", currentUser);
-
         return "articles/list"; // Этот шаблон будет отображать список статей
     }
+
+    private String details(Article article, AuthenticatedUser currentUser,
+                           WebRequest request, HttpServletResponse response, Model model) {
+        Long id = article.getId();
+        // Теги и комментарии ещё не загружены - при совпадении версии они не понадобятся
+        if (notModified(request, response, articleVersions.forArticle(article, currentUser), currentUser)) {
+            return null;
+        }
+        model.addAttribute("article", article);
+        // Только первая страница комментариев, остальные догружаются фрагментом
+        model.addAttribute("articleId", id);
+        model.addAttribute("comments", commentService.getComments(id, null, COMMENTS_PAGE_SIZE));
+        // Свои комментарии, которые ещё ждут записи в БД, автор видит сразу
+        model.addAttribute("pendingComments", commentService.getPendingComments(id, currentUser));
+        // и те, что записать не удалось, - один раз, чтобы их можно было отправить заново
+        model.addAttribute("failedComments", commentService.takeFailedComments(id, currentUser));
+        model.addAttribute("currentUser", currentUser);
+        return "articles/details";
+    }
+
+    // Условный GET: если версия страницы совпала с If-None-Match, отвечаем 304 без отрисовки шаблона.
+    // no-cache - браузер (и прокси) хранит страницу, но каждый раз сверяет версию. Страница гостя одинакова
+    // для всех гостей и может храниться в общем кэше; страница пользователя содержит CSRF-токен - только private
+    private static boolean notModified(WebRequest request, HttpServletResponse response, String etag,
+                                       AuthenticatedUser currentUser) {
+        CacheControl cacheControl = currentUser != null
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.noCache().cachePublic();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        return request.checkNotModified(etag);
+    }
+
+    // Кладём в модель статьи страницы и ссылки на соседние страницы (с сохранением остальных параметров запроса)
+    private void addPage(Model model, CursorPage<ArticleCard> page) {
+        model.addAttribute("articles", page.getItems());
+        model.addAttribute("nextPageUrl", page.hasNext() ? pageUrl(page.getNextCursor()) : null);
+        model.addAttribute("prevPageUrl", page.hasPrev() ? pageUrl(page.getPrevCursor()) : null);
+    }
+
+    private String pageUrl(String cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", cursor)
+                .build()
+                .toUriString();
+    }
 }
@@ -1,12 +1,15 @@
 package com.example.articles.controllers;
 
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.Tag;
 import com.example.articles.service.TagService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 @Controller
+@Timed(MetricsConfig.CONTROLLER_TIMER)
 @RequestMapping("/tags")
 public class TagController {
 
@@ -16,10 +19,15 @@ public class TagController {
         this.tagService = tagService;
     }
 
-    // Отображение списка тегов
+    // Отображение списка тегов с числом статей: sort - popular (по умолчанию, в том числе вместо неизвестного),
+    // recent или name, top - только первые N тегов (облако популярных)
     @GetMapping
-    public String listTags(Model model) {
-        model.addAttribute("tags", tagService.getAllTags());
+    public String listTags(@RequestParam(value = "sort", defaultValue = TagService.SORT_POPULAR) String sort,
+                           @RequestParam(value = "top", required = false) Integer top,
+                           Model model) {
+        model.addAttribute("tags", tagService.getTagUsage(sort, top));
+        model.addAttribute("sort", TagService.sortOrDefault(sort));
+        model.addAttribute("top", top);
         return "tags/list";
     }
 
@@ -1,7 +1,9 @@
 package com.example.articles.controllers;
 
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.User;
 import com.example.articles.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,6 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Controller
+@Timed(MetricsConfig.CONTROLLER_TIMER)
 @RequestMapping("/users")
 public class UserController {
 
@@ -7,12 +7,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+// Публичные ссылки /articles/s/{slug} ищут статью по уникальному индексу ux_article_slug (V1, NULL допускается многократно)
 @Entity
 @Table(name = "article")
 public class Article {
 
+    // id из последовательности article_seq блоками по 50: вставки можно объединять в JDBC-пакеты
+    // (с IDENTITY Hibernate вынужден выполнять каждый INSERT сразу, чтобы узнать id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     private LocalDateTime createdAt;
@@ -45,6 +48,14 @@ public class Article {
     @OneToMany(mappedBy = "article", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ArticleFavorite> favorites = new ArrayList<>();
 
+    // Денормализованные счётчики. Сущность их не перезаписывает при обновлении статьи:
+    // меняются только пакетными UPDATE из ArticleCounters (приращения и сверка)
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount;
+
+    @Column(name = "favorite_count", nullable = false, updatable = false)
+    private long favoriteCount;
+
     // Новое поле - владелец статьи
     @ManyToOne
     @JoinColumn(name = "owner_id", referencedColumnName = "id")
@@ -118,6 +129,18 @@ public class Article {
     public void setFavorites(List<ArticleFavorite> favorites) {
         this.favorites = favorites;
     }
+    public long getCommentCount() {
+        return commentCount;
+    }
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+    public void setFavoriteCount(long favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
 
     // Геттер и сеттер для владельца
     public User getOwner() {
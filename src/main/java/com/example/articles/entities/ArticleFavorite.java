@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 public class ArticleFavorite {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     private LocalDateTime createdAt;
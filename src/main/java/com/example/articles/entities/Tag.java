@@ -2,22 +2,20 @@ package com.example.articles.entities;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
 @Table(name = "tag")
 public class Tag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     private LocalDateTime createdAt;
     private String name;
 
-    @ManyToMany(mappedBy = "tags")
-    private Set<Article> articles = new HashSet<>();
+    // Статьи тега здесь не отображаются: коллекция загружала бы все статьи тега ради их числа.
+    // Число статей и время последнего использования - в TagUsage
 
     // Getters / Setters
 
@@ -39,11 +37,19 @@ public class Tag {
     public void setName(String name) {
         this.name = name;
     }
-    public Set<Article> getArticles() {
-        return articles;
+
+    // Сравнение по id: теги из кэша справочников и из текущей сессии Hibernate - разные экземпляры
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Tag)) return false;
+        Tag other = (Tag) o;
+        return id != null && id.equals(other.getId());
     }
-    public void setArticles(Set<Article> articles) {
-        this.articles = articles;
+
+    @Override
+    public int hashCode() {
+        return Tag.class.hashCode();
     }
 
     @Override
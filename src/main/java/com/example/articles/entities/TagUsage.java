@@ -0,0 +1,54 @@
+package com.example.articles.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Материализованная статистика тега: сколько статей с ним и когда его последний раз добавили к статье.
+// Строка создаётся вместе с тегом, счётчик меняют только пакетные UPDATE из TagUsageCounters.
+// Индексы (V1) - под страницу тегов: самые популярные и недавно использованные без чтения article_tag
+@Entity
+@Table(name = "tag_usage")
+public class TagUsage {
+
+    @Id
+    @Column(name = "tag_id")
+    private Long tagId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tag_id")
+    private Tag tag;
+
+    @Column(name = "article_count", nullable = false)
+    private long articleCount;
+
+    @Column(name = "last_used_at")
+    private LocalDateTime lastUsedAt;
+
+    // Getters / Setters
+
+    public Long getTagId() {
+        return tagId;
+    }
+    public void setTagId(Long tagId) {
+        this.tagId = tagId;
+    }
+    public Tag getTag() {
+        return tag;
+    }
+    public void setTag(Tag tag) {
+        this.tag = tag;
+    }
+    public long getArticleCount() {
+        return articleCount;
+    }
+    public void setArticleCount(long articleCount) {
+        this.articleCount = articleCount;
+    }
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+    public void setLastUsedAt(LocalDateTime lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+}
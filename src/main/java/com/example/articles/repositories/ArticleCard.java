@@ -0,0 +1,112 @@
+package com.example.articles.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Карточка статьи для страниц-списков: только то, что показывается в карточке.
+// Содержимое статьи, комментарии и избранное не загружаются.
+public class ArticleCard {
+
+    private final Long id;
+    private final String slug;
+    private final String title;
+    private final String description;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long authorId;
+    private final String authorName;
+    private final Long ownerId;
+    private final String ownerUsername;
+    private final long commentCount;
+    private final long favoriteCount;
+    private final List<TagRef> tags = new ArrayList<>();
+
+    // Используется в JPQL-выражении select new ...
+    public ArticleCard(Long id, String slug, String title, String description, LocalDateTime createdAt, LocalDateTime updatedAt,
+                       Long authorId, String authorName, Long ownerId, String ownerUsername,
+                       long commentCount, long favoriteCount) {
+        this.id = id;
+        this.slug = slug;
+        this.title = title;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.ownerId = ownerId;
+        this.ownerUsername = ownerUsername;
+        this.commentCount = commentCount;
+        this.favoriteCount = favoriteCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public String getSlug() {
+        return slug;
+    }
+    public String getTitle() {
+        return title;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public Long getAuthorId() {
+        return authorId;
+    }
+    public String getAuthorName() {
+        return authorName;
+    }
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+    public long getCommentCount() {
+        return commentCount;
+    }
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+    public List<TagRef> getTags() {
+        return tags;
+    }
+
+    // Тег карточки: id для ссылки и название
+    public static class TagRef {
+        private final Long id;
+        private final String name;
+
+        public TagRef(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+        public String getName() {
+            return name;
+        }
+
+        // Сравнение по содержимому: по нему ArticleCardCache узнаёт отрисованные с другими тегами карточки
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TagRef other && Objects.equals(id, other.id) && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+}
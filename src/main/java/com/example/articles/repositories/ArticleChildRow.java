@@ -0,0 +1,7 @@
+package com.example.articles.repositories;
+
+// Строка, принадлежащая статье (комментарий, избранное): её id и id статьи
+public interface ArticleChildRow {
+    Long getId();
+    Long getArticleId();
+}
@@ -1,9 +1,29 @@
 package com.example.articles.repositories;
 
 import com.example.articles.entities.ArticleComment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ArticleCommentRepository extends JpaRepository<ArticleComment, Long> {
-    void deleteByUserId(Long userId);
+
+    // Порции для пакетного удаления (сами строки удаляются через deleteAllByIdInBatch)
+    @Query("select c.id as id, c.article.id as articleId from ArticleComment c where c.user.id = :userId")
+    List<ArticleChildRow> findChunkByUser(Long userId, Limit limit);
+
+    @Query("select c.id from ArticleComment c where c.article.id in :articleIds")
+    List<Long> findIdsByArticleIds(Collection<Long> articleIds, Limit limit);
+
+    // Keyset-страница комментариев статьи по (createdAt ASC, id ASC) строго после курсора
+    // (null-курсор - с начала); пользователь читается тем же запросом. article_id в order by - как
+    // у findOlderByAuthor: порядок индекса idx_article_comment_article_created без сортировки
+    @Query("select c.id as id, c.body as body, c.createdAt as createdAt, u.id as userId, u.username as username " +
+            "from ArticleComment c join c.user u where c.article.id = :articleId " +
+            "and (:createdAt is null or c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) " +
+            "order by c.article.id asc, c.createdAt asc, c.id asc")
+    List<ArticleCommentRow> findPage(Long articleId, LocalDateTime createdAt, Long id, Limit limit);
 }
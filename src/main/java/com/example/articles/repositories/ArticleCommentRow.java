@@ -0,0 +1,12 @@
+package com.example.articles.repositories;
+
+import java.time.LocalDateTime;
+
+// Комментарий для страницы статьи вместе с именем автора комментария (без загрузки сущностей)
+public interface ArticleCommentRow {
+    Long getId();
+    String getBody();
+    LocalDateTime getCreatedAt();
+    Long getUserId();
+    String getUsername();
+}
@@ -0,0 +1,88 @@
+package com.example.articles.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Статья целиком для JSON API и выгрузки: содержимое, автор, владелец, счётчики и теги.
+// Комментарии и избранное не входят - их может быть сколько угодно.
+public class ArticleDocument {
+
+    private final Long id;
+    private final String slug;
+    private final String title;
+    private final String description;
+    private final String body;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long authorId;
+    private final String authorName;
+    private final Long ownerId;
+    private final String ownerUsername;
+    private final long commentCount;
+    private final long favoriteCount;
+    private final List<ArticleCard.TagRef> tags = new ArrayList<>();
+
+    // Используется в JPQL-выражении select new ...
+    public ArticleDocument(Long id, String slug, String title, String description, String body,
+                           LocalDateTime createdAt, LocalDateTime updatedAt,
+                           Long authorId, String authorName, Long ownerId, String ownerUsername,
+                           long commentCount, long favoriteCount) {
+        this.id = id;
+        this.slug = slug;
+        this.title = title;
+        this.description = description;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.ownerId = ownerId;
+        this.ownerUsername = ownerUsername;
+        this.commentCount = commentCount;
+        this.favoriteCount = favoriteCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public String getSlug() {
+        return slug;
+    }
+    public String getTitle() {
+        return title;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public String getBody() {
+        return body;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public Long getAuthorId() {
+        return authorId;
+    }
+    public String getAuthorName() {
+        return authorName;
+    }
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+    public long getCommentCount() {
+        return commentCount;
+    }
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+    public List<ArticleCard.TagRef> getTags() {
+        return tags;
+    }
+}
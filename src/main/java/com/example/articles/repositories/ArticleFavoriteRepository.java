@@ -1,7 +1,19 @@
 package com.example.articles.repositories;
 
 import com.example.articles.entities.ArticleFavorite;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 import java.util.List;
 
-public interface ArticleFavoriteRepository extends JpaRepository<ArticleFavorite, Long> {}
+public interface ArticleFavoriteRepository extends JpaRepository<ArticleFavorite, Long> {
+
+    // Порции для пакетного удаления (сами строки удаляются через deleteAllByIdInBatch)
+    @Query("select f.id as id, f.article.id as articleId from ArticleFavorite f where f.user.id = :userId")
+    List<ArticleChildRow> findChunkByUser(Long userId, Limit limit);
+
+    @Query("select f.id from ArticleFavorite f where f.article.id in :articleIds")
+    List<Long> findIdsByArticleIds(Collection<Long> articleIds, Limit limit);
+}
@@ -1,15 +1,119 @@
 package com.example.articles.repositories;
 
 import com.example.articles.entities.Article;
-import com.example.articles.entities.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
-    // Поиск статей по автору по id
-    List<Article> findByAuthor_Id(Long authorId);
-    // Поиск статей по тегу по id
-    List<Article> findByTags_Id(Long tagId);
-    void deleteByOwnerId(Long ownerId);
-    List<Article> findByTitleContainingIgnoreCaseOrBodyContainingIgnoreCase(String title, String body);
+
+    String CARD_SELECT = "select new com.example.articles.repositories.ArticleCard(" +
+            "a.id, a.slug, a.title, a.description, a.createdAt, a.updatedAt, au.id, au.name, o.id, o.username, " +
+            "a.commentCount, a.favoriteCount) ";
+
+    String CARD = CARD_SELECT + "from Article a join a.author au left join a.owner o ";
+
+    // Автор присоединяется как сущность по a.author.id: условие и order by по a.author.id остаются
+    // на столбце article.author_id (при join a.author Hibernate сравнивал бы id присоединённого автора)
+    String AUTHOR_CARD = CARD_SELECT + "from Article a join Author au on au.id = a.author.id left join a.owner o ";
+
+    String DOCUMENT = "select new com.example.articles.repositories.ArticleDocument(" +
+            "a.id, a.slug, a.title, a.description, a.body, a.createdAt, a.updatedAt, au.id, au.name, o.id, o.username, " +
+            "a.commentCount, a.favoriteCount) " +
+            "from Article a join a.author au left join a.owner o ";
+
+    // Порция id статей владельца для пакетного удаления
+    @Query("select a.id from Article a where a.owner.id = :ownerId")
+    List<Long> findIdsByOwner(Long ownerId, Limit limit);
+
+    // Чтение текстов статей порциями по id для построения поискового индекса
+    @Query("select a.id as id, a.createdAt as createdAt, a.title as title, a.description as description, a.body as body " +
+            "from Article a where a.id > :afterId order by a.id")
+    List<ArticleSearchRow> findSearchRows(Long afterId, Limit limit);
+
+    // Все статьи вместе с автором, владельцем и тегами одним запросом
+    @Override
+    @EntityGraph(attributePaths = {"author", "owner", "tags"})
+    List<Article> findAll();
+
+    // id статьи по slug - точечный поиск по уникальному индексу ux_article_slug
+    @Query("select a.id from Article a where a.slug = :slug")
+    Optional<Long> findIdBySlug(String slug);
+
+    // Какие из slug уже заняты (порция импорта - одним запросом)
+    @Query("select a.slug from Article a where a.slug in :slugs")
+    List<String> findSlugsIn(Collection<String> slugs);
+
+    // Статья для JSON API (теги - через findTagRows)
+    @Query(DOCUMENT + "where a.id = :id")
+    Optional<ArticleDocument> findDocumentById(Long id);
+
+    // Карточки по списку id (порядок не гарантируется)
+    @Query(CARD + "where a.id in :ids")
+    List<ArticleCard> findCardsByIdIn(Collection<Long> ids);
+
+    // id тегов статей, по одному на каждую связь (для статистики tag_usage при удалении)
+    @Query("select t.id from Article a join a.tags t where a.id in :articleIds")
+    List<Long> findTagIdsByArticleIds(Collection<Long> articleIds);
+
+    // Теги для страницы карточек одним запросом
+    @Query("select a.id as articleId, t.id as tagId, t.name as tagName from Article a join a.tags t " +
+            "where a.id in :articleIds order by t.name")
+    List<ArticleTagRow> findTagRows(Collection<Long> articleIds);
+
+    // Keyset-пагинация карточек по (createdAt DESC, id DESC).
+    // *Older* - статьи строго после курсора (null-курсор - первая страница),
+    // *Newer* - статьи строго перед курсором в обратном порядке (для перехода назад).
+    // Автор и владелец читаются тем же запросом, тело статьи не читается вовсе.
+    // Статьи автора отбираются по article.author_id (AUTHOR_CARD) - иначе условие не попадает
+    // в idx_article_author_created; author_id в order by при равенстве ничего не меняет, но показывает
+    // оптимизатору, что индекс (author_id, created_at, id) уже отдаёт строки в нужном порядке
+
+    @Query(CARD +
+            "where :createdAt is null or a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id) " +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleCard> findOlder(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(CARD +
+            "where a.createdAt > :createdAt or (a.createdAt = :createdAt and a.id > :id) " +
+            "order by a.createdAt asc, a.id asc")
+    List<ArticleCard> findNewer(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(AUTHOR_CARD + "where a.author.id = :authorId " +
+            "and (:createdAt is null or a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.author.id desc, a.createdAt desc, a.id desc")
+    List<ArticleCard> findOlderByAuthor(Long authorId, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(AUTHOR_CARD + "where a.author.id = :authorId " +
+            "and (a.createdAt > :createdAt or (a.createdAt = :createdAt and a.id > :id)) " +
+            "order by a.author.id asc, a.createdAt asc, a.id asc")
+    List<ArticleCard> findNewerByAuthor(Long authorId, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(CARD + "join a.tags t where t.id = :tagId " +
+            "and (:createdAt is null or a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleCard> findOlderByTag(Long tagId, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(CARD + "join a.tags t where t.id = :tagId " +
+            "and (a.createdAt > :createdAt or (a.createdAt = :createdAt and a.id > :id)) " +
+            "order by a.createdAt asc, a.id asc")
+    List<ArticleCard> findNewerByTag(Long tagId, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(CARD +
+            "where (lower(a.title) like lower(concat('%', :query, '%')) or lower(a.body) like lower(concat('%', :query, '%'))) " +
+            "and (:createdAt is null or a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleCard> searchOlder(String query, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(CARD +
+            "where (lower(a.title) like lower(concat('%', :query, '%')) or lower(a.body) like lower(concat('%', :query, '%'))) " +
+            "and (a.createdAt > :createdAt or (a.createdAt = :createdAt and a.id > :id)) " +
+            "order by a.createdAt asc, a.id asc")
+    List<ArticleCard> searchNewer(String query, LocalDateTime createdAt, Long id, Limit limit);
 }
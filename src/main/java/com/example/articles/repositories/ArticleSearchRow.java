@@ -0,0 +1,12 @@
+package com.example.articles.repositories;
+
+import java.time.LocalDateTime;
+
+// Проекция статьи с полями, нужными для полнотекстового индекса (без связей)
+public interface ArticleSearchRow {
+    Long getId();
+    LocalDateTime getCreatedAt();
+    String getTitle();
+    String getDescription();
+    String getBody();
+}
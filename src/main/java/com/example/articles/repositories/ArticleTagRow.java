@@ -0,0 +1,8 @@
+package com.example.articles.repositories;
+
+// Строка связи статья-тег для сборки карточек
+public interface ArticleTagRow {
+    Long getArticleId();
+    Long getTagId();
+    String getTagName();
+}
@@ -2,5 +2,16 @@ package com.example.articles.repositories;
 
 import com.example.articles.entities.Author;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
+import java.util.Optional;
 
-public interface AuthorRepository extends JpaRepository<Author, Long> {}
+public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    @Query("select new com.example.articles.repositories.ReferenceItem(a.id, a.name) from Author a order by a.name, a.id")
+    List<ReferenceItem> findAllItems();
+
+    // Имя уникально (ux_author_name)
+    @Query("select a.id from Author a where a.name = :name")
+    Optional<Long> findIdByName(String name);
+}
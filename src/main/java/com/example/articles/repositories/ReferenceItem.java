@@ -0,0 +1,22 @@
+package com.example.articles.repositories;
+
+// Элемент справочника (тег, автор) для списков выбора: id и название.
+// Неизменяемый и без связей с другими сущностями - безопасно хранится в общем кэше и отдаётся разным запросам
+public final class ReferenceItem {
+
+    private final Long id;
+    private final String name;
+
+    // Используется в JPQL-выражении select new ...
+    public ReferenceItem(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public String getName() {
+        return name;
+    }
+}
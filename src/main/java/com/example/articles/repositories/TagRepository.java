@@ -2,6 +2,16 @@ package com.example.articles.repositories;
 
 import com.example.articles.entities.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
+import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {}
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    @Query("select new com.example.articles.repositories.ReferenceItem(t.id, t.name) from Tag t order by t.name, t.id")
+    List<ReferenceItem> findAllItems();
+
+    // Название уникально (ux_tag_name)
+    @Query("select t.id from Tag t where t.name = :name")
+    Optional<Long> findIdByName(String name);
+}
@@ -0,0 +1,27 @@
+package com.example.articles.repositories;
+
+import com.example.articles.entities.TagUsage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface TagUsageRepository extends JpaRepository<TagUsage, Long> {
+
+    String ROW = "select t.id as id, t.name as name, t.createdAt as createdAt, " +
+            "u.articleCount as articleCount, u.lastUsedAt as lastUsedAt " +
+            "from TagUsage u join u.tag t ";
+
+    // Самые популярные теги - по индексу idx_tag_usage_count от конца, первые limit строк
+    @Query(ROW + "order by u.articleCount desc, u.tagId desc")
+    List<TagUsageRow> findMostUsed(Limit limit);
+
+    // Недавно использованные - по индексу idx_tag_usage_last_used. Теги без статей (NULL) и так
+    // оказываются в конце при desc в MariaDB и H2; явный nulls last помешал бы чтению по индексу
+    @Query(ROW + "order by u.lastUsedAt desc, u.tagId desc")
+    List<TagUsageRow> findRecentlyUsed(Limit limit);
+
+    @Query(ROW + "order by t.name, t.id")
+    List<TagUsageRow> findAllByName(Limit limit);
+}
@@ -0,0 +1,12 @@
+package com.example.articles.repositories;
+
+import java.time.LocalDateTime;
+
+// Строка страницы тегов: тег и его статистика из tag_usage (без загрузки статей)
+public interface TagUsageRow {
+    Long getId();
+    String getName();
+    LocalDateTime getCreatedAt();
+    long getArticleCount();
+    LocalDateTime getLastUsedAt();
+}
@@ -0,0 +1,11 @@
+package com.example.articles.repositories;
+
+import com.example.articles.entities.User;
+
+// Проекция пользователя для входа в систему: без bio, комментариев и избранного
+public interface UserCredentials {
+    Long getId();
+    String getUsername();
+    String getPassword();
+    User.Roles getRole();
+}
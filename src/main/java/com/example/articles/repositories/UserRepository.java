@@ -8,4 +8,6 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     // Поиск пользователя по username
     User findByUsername(String username);
+    // Только поля, нужные для аутентификации
+    UserCredentials findCredentialsByUsername(String username);
 }
@@ -0,0 +1,143 @@
+package com.example.articles.service;
+
+import com.example.articles.repositories.ArticleCard;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Готовый HTML карточек статей для страниц-списков (фрагмент card из articles/card.html).
+// Карточка отрисовывается один раз для версии статьи (updatedAt, счётчики и теги карточки - id и названия)
+// и варианта для зрителя: с кнопками изменения (владелец, администратор) или без них (гость, остальные пользователи).
+// Устаревшая версия просто не совпадёт при чтении - в том числе карточка, отрисованная запросом, который прочитал
+// теги до переименования, а положил HTML уже после вытеснения. ArticleServiceImpl и TagServiceImpl дополнительно
+// вытесняют карточки после фиксации изменений, чтобы освободить память.
+@Component
+public class ArticleCardCache {
+
+    private static final String TEMPLATE = "articles/card";
+    private static final Set<String> FRAGMENT = Set.of("card");
+
+    private final ITemplateEngine templateEngine;
+    private final Cache<Key, Entry> cache;
+
+    private volatile JakartaServletWebApplication application;
+
+    public ArticleCardCache(ITemplateEngine templateEngine,
+                            MeterRegistry meterRegistry,
+                            @Value("${articles.card-cache.maximum-size:10000}") long maximumSize) {
+        this.templateEngine = templateEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        // Попадания и промахи - в метриках cache.gets{cache="articleCards"}, как у кэшей справочников
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "articleCards");
+    }
+
+    // Вызывается из шаблона articles/list для каждой карточки страницы
+    public String render(ArticleCard card, AuthenticatedUser viewer) {
+        boolean canModify = viewer != null && (viewer.isAdmin() || Objects.equals(card.getOwnerId(), viewer.getId()));
+        Key key = new Key(card.getId(), canModify);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || !entry.matches(card)) {
+            entry = new Entry(card, renderFragment(card, canModify));
+            cache.put(key, entry);
+        }
+        return entry.html;
+    }
+
+    public void evict(Long articleId) {
+        cache.invalidate(new Key(articleId, false));
+        cache.invalidate(new Key(articleId, true));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private String renderFragment(ArticleCard card, boolean canModify) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        // HTML общий для всех пользователей - ссылки не должны получить jsessionid текущей сессии
+        HttpServletResponse response = new HttpServletResponseWrapper(attributes.getResponse()) {
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+        };
+        WebContext context = new WebContext(application(request.getServletContext()).buildExchange(request, response),
+                LocaleContextHolder.getLocale(), Map.of("article", card, "canModify", canModify));
+        return templateEngine.process(TEMPLATE, FRAGMENT, context);
+    }
+
+    private JakartaServletWebApplication application(ServletContext servletContext) {
+        JakartaServletWebApplication current = application;
+        if (current == null) {
+            current = JakartaServletWebApplication.buildApplication(servletContext);
+            application = current;
+        }
+        return current;
+    }
+
+    private static final class Key {
+        final Long articleId;
+        final boolean canModify;
+
+        Key(Long articleId, boolean canModify) {
+            this.articleId = articleId;
+            this.canModify = canModify;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && articleId.equals(other.articleId) && canModify == other.canModify;
+        }
+
+        @Override
+        public int hashCode() {
+            return articleId.hashCode() * 31 + (canModify ? 1 : 0);
+        }
+    }
+
+    private static final class Entry {
+        final LocalDateTime updatedAt;
+        final long commentCount;
+        final long favoriteCount;
+        final List<ArticleCard.TagRef> tags;
+        final String html;
+
+        Entry(ArticleCard card, String html) {
+            this.updatedAt = card.getUpdatedAt();
+            this.commentCount = card.getCommentCount();
+            this.favoriteCount = card.getFavoriteCount();
+            this.tags = List.copyOf(card.getTags());
+            this.html = html;
+        }
+
+        boolean matches(ArticleCard card) {
+            return Objects.equals(updatedAt, card.getUpdatedAt())
+                    && commentCount == card.getCommentCount()
+                    && favoriteCount == card.getFavoriteCount()
+                    && tags.equals(card.getTags());
+        }
+    }
+}
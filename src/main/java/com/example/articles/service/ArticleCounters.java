@@ -0,0 +1,204 @@
+package com.example.articles.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Счётчики комментариев и избранного статей (article.comment_count / article.favorite_count).
+// Приращения копятся в памяти в LongAdder (без UPDATE и блокировки строки популярной статьи
+// на каждый комментарий) и периодически сбрасываются в БД одним пакетом. Запись приращения не берёт
+// блокировок: ни строки БД, ни ключа карты (см. add и retire).
+// Расхождения (сбой между фиксацией и сбросом, гонки) исправляет сверка с article_comment/article_favorite.
+@Component
+public class ArticleCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleCounters.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
+    // Сколько выведенная из pending запись ждёт запоздавших приращений (см. drainRetired)
+    private static final long RETIRED_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final String FLUSH_SQL =
+            "update article set comment_count = comment_count + ?, favorite_count = favorite_count + ? where id = ?";
+
+    // Пересчитываем только разошедшиеся строки, чтобы не переписывать (и не блокировать) всю таблицу
+    private static final String RECONCILE_SQL =
+            "update article set " +
+            "comment_count = (select count(*) from article_comment c where c.article_id = article.id), " +
+            "favorite_count = (select count(*) from article_favorite f where f.article_id = article.id) " +
+            "where id > ? and id <= ? and (" +
+            "comment_count <> (select count(*) from article_comment c where c.article_id = article.id) or " +
+            "favorite_count <> (select count(*) from article_favorite f where f.article_id = article.id))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // id статьи -> ещё не записанные в БД приращения
+    private final Map<Long, Deltas> pending = new ConcurrentHashMap<>();
+
+    // Записи, выведенные из pending, и их id: в них ещё могло попасть приращение (см. retire).
+    // Только под flushLock
+    private final Map<Deltas, Long> retired = new HashMap<>();
+
+    // Сбросы не пересекаются. Не synchronized: в режиме виртуальных потоков монитор, удерживаемый
+    // во время JDBC-вызова, закрепил бы виртуальный поток за потоком-носителем
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ArticleCounters(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Вызывается после фиксации транзакции, добавившей или удалившей комментарии
+    public void addComments(Long articleId, long delta) {
+        add(articleId, delta, 0);
+    }
+
+    // Вызывается после фиксации транзакции, добавившей или удалившей избранное
+    public void addFavorites(Long articleId, long delta) {
+        add(articleId, 0, delta);
+    }
+
+    // Запись статьи читается без блокировки (computeIfAbsent - только для новой), приращение - LongAdder.
+    // Если сброс тем временем вывел запись из карты, приращение остаётся в ней и его переносит drainRetired
+    private void add(Long articleId, long comments, long favorites) {
+        Deltas deltas = pending.get(articleId);
+        if (deltas == null) {
+            deltas = pending.computeIfAbsent(articleId, id -> new Deltas());
+        }
+        deltas.add(comments, favorites);
+    }
+
+    // Ещё не записанные в БД приращения статьи - для валидаторов HTTP-кэша (см. ArticleVersions)
+    public long pendingComments(Long articleId) {
+        Deltas deltas = pending.get(articleId);
+        return deltas != null ? deltas.comments.sum() : 0;
+    }
+
+    public long pendingFavorites(Long articleId) {
+        Deltas deltas = pending.get(articleId);
+        return deltas != null ? deltas.favorites.sum() : 0;
+    }
+
+    // Сброс накопленных приращений в БД пакетами. Записанное вычитается из памяти только после
+    // успешного UPDATE: сумма "БД + память" не откатывается назад даже на время сброса
+    @Scheduled(fixedDelayString = "${articles.counters.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        drainRetired();
+        List<Object[]> batch = new ArrayList<>();
+        List<Deltas> written = new ArrayList<>();
+        for (Map.Entry<Long, Deltas> entry : pending.entrySet()) {
+            Deltas deltas = entry.getValue();
+            long comments = deltas.comments.sum();
+            long favorites = deltas.favorites.sum();
+            if (comments == 0 && favorites == 0) {
+                // Статья не менялась с прошлого сброса - убираем запись, чтобы карта не росла
+                retire(entry.getKey(), deltas);
+                continue;
+            }
+            batch.add(new Object[]{comments, favorites, entry.getKey()});
+            written.add(deltas);
+        }
+        for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, batch.size());
+            List<Object[]> chunk = batch.subList(from, to);
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, chunk);
+            } catch (RuntimeException e) {
+                // Приращения остаются в памяти - попробуем при следующем сбросе
+                log.warn("Не удалось записать счётчики статей ({} шт.), повторим позже", chunk.size(), e);
+                continue;
+            }
+            for (int i = from; i < to; i++) {
+                Object[] row = batch.get(i);
+                written.get(i).comments.add(-(Long) row[0]);
+                written.get(i).favorites.add(-(Long) row[1]);
+            }
+        }
+    }
+
+    // Пустая запись убирается из карты, но не забывается сразу: писатель, взявший её из карты раньше,
+    // мог ещё не внести приращение (см. drainRetired)
+    private void retire(Long articleId, Deltas deltas) {
+        pending.remove(articleId, deltas);
+        deltas.retiredAt = System.nanoTime();
+        retired.put(deltas, articleId);
+    }
+
+    // Остатки выведенных записей - в pending. Запись забывается, когда в ней ноль и с вывода прошло
+    // RETIRED_GRACE: приращения писателей, получивших её до вывода, к этому времени уже внесены.
+    // Писатель, простоявший между чтением карты и приращением дольше, потеряет его до сверки
+    private void drainRetired() {
+        long now = System.nanoTime();
+        retired.entrySet().removeIf(entry -> {
+            Deltas deltas = entry.getKey();
+            long comments = deltas.comments.sum();
+            long favorites = deltas.favorites.sum();
+            if (comments == 0 && favorites == 0) {
+                return now - deltas.retiredAt > RETIRED_GRACE_NANOS;
+            }
+            deltas.add(-comments, -favorites);
+            add(entry.getValue(), comments, favorites);
+            return false;
+        });
+    }
+
+    // Сверка счётчиков с фактическим числом комментариев и избранного, порциями по диапазону id
+    @Scheduled(cron = "${articles.counters.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        flush();
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from article", Long.class);
+        int fixed = 0;
+        if (maxId != null) {
+            for (long from = 0; from < maxId; from += RECONCILE_CHUNK_SIZE) {
+                fixed += jdbcTemplate.update(RECONCILE_SQL, from, from + RECONCILE_CHUNK_SIZE);
+            }
+        }
+        if (fixed > 0) {
+            log.info("Сверка счётчиков статей: исправлено {} статей", fixed);
+        }
+        return fixed;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class Deltas {
+        final LongAdder comments = new LongAdder();
+        final LongAdder favorites = new LongAdder();
+        // Время вывода из карты (System.nanoTime), только под flushLock
+        long retiredAt;
+
+        void add(long commentsDelta, long favoritesDelta) {
+            if (commentsDelta != 0) {
+                comments.add(commentsDelta);
+            }
+            if (favoritesDelta != 0) {
+                favorites.add(favoritesDelta);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.articles.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Позиция в ленте статей, отсортированной по (createdAt DESC, id DESC).
+// Курсор указывает на крайнюю статью страницы и направление, в котором читать дальше.
+public class ArticleCursor {
+
+    public enum Direction {
+        NEXT, // более старые статьи
+        PREV  // более новые статьи
+    }
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+    private final Direction direction;
+
+    public ArticleCursor(LocalDateTime createdAt, Long id, Direction direction) {
+        this.createdAt = createdAt;
+        this.id = id;
+        this.direction = direction;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public Long getId() {
+        return id;
+    }
+    public Direction getDirection() {
+        return direction;
+    }
+
+    // Непрозрачный токен для URL: base64url("N|2024-01-01T10:00|42")
+    public String encode() {
+        String raw = direction.name().charAt(0) + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Возвращает null для пустого токена (первая страница)
+    public static ArticleCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Некорректный курсор: " + token);
+            }
+            Direction direction = "P".equals(parts[0]) ? Direction.PREV : Direction.NEXT;
+            return new ArticleCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]), direction);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + token, e);
+        }
+    }
+}
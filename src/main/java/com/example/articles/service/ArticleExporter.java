@@ -0,0 +1,80 @@
+package com.example.articles.service;
+
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.ArticleDocument;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+// Выгрузка всех статей одним проходом: курсор только вперёд по запросу "статья + её теги" в порядке id.
+// StatelessSession не хранит прочитанное, строки приходят из драйвера порциями по fetch-size,
+// а статья отдаётся потребителю, как только началась следующая - в памяти всегда одна статья,
+// сколько бы их ни было в базе.
+@Component
+public class ArticleExporter {
+
+    private static final String EXPORT_HQL =
+            "select a.id, a.slug, a.title, a.description, a.body, a.createdAt, a.updatedAt, au.id, au.name, " +
+            "o.id, o.username, a.commentCount, a.favoriteCount, t.id, t.name " +
+            "from Article a join a.author au left join a.owner o left join a.tags t " +
+            "order by a.id, t.id";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    public ArticleExporter(EntityManagerFactory entityManagerFactory,
+                           @Value("${articles.export.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    // Передаёт consumer'у статьи по возрастанию id; возвращает их число
+    public long export(Consumer<ArticleDocument> consumer) {
+        long exported = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> rows = session.createSelectionQuery(EXPORT_HQL, Object[].class)
+                    .setReadOnly(true)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                ArticleDocument current = null;
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    if (current == null || !Objects.equals(current.getId(), row[0])) {
+                        if (current != null) {
+                            consumer.accept(current);
+                            exported++;
+                        }
+                        current = document(row);
+                    }
+                    if (row[13] != null) {
+                        current.getTags().add(new ArticleCard.TagRef((Long) row[13], (String) row[14]));
+                    }
+                }
+                if (current != null) {
+                    consumer.accept(current);
+                    exported++;
+                }
+            } finally {
+                // Только чтение - фиксировать нечего
+                transaction.rollback();
+            }
+        }
+        return exported;
+    }
+
+    private static ArticleDocument document(Object[] row) {
+        return new ArticleDocument((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                (LocalDateTime) row[5], (LocalDateTime) row[6], (Long) row[7], (String) row[8],
+                (Long) row[9], (String) row[10], (Long) row[11], (Long) row[12]);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.articles.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+// Источник записей импорта: читает вход потоком, по одной записи - файл любого размера не грузится в память
+public interface ArticleImportReader extends Closeable {
+
+    // Следующая запись или null, если вход кончился; ошибка формата - IllegalArgumentException
+    ArticleImportRecord next() throws IOException;
+
+    // NDJSON: по объекту ArticleImportRecord на строку
+    static ArticleImportReader ndjson(InputStream in, ObjectMapper objectMapper) throws IOException {
+        MappingIterator<ArticleImportRecord> records = objectMapper.readerFor(ArticleImportRecord.class).readValues(in);
+        return new ArticleImportReader() {
+            @Override
+            public ArticleImportRecord next() throws IOException {
+                try {
+                    return records.hasNextValue() ? records.nextValue() : null;
+                } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+                    throw new IllegalArgumentException("Неверная строка NDJSON: " + e.getOriginalMessage(), e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                records.close();
+            }
+        };
+    }
+
+    // CSV с заголовком (см. CsvArticleImportReader)
+    static ArticleImportReader csv(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return new CsvArticleImportReader(reader);
+    }
+}
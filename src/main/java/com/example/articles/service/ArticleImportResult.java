@@ -0,0 +1,44 @@
+package com.example.articles.service;
+
+// Итог импорта. committed - сколько записей входа от начала уже сохранено (включая пропущенные skip):
+// после ошибки импорт того же файла продолжается с skip=committed
+public class ArticleImportResult {
+
+    private final long imported;
+    private final long committed;
+    private final long elapsedMillis;
+    private final String error;
+
+    public ArticleImportResult(long imported, long committed, long elapsedMillis, String error) {
+        this.imported = imported;
+        this.committed = committed;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+    public long getCommitted() {
+        return committed;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public String getError() {
+        return error;
+    }
+    public boolean isComplete() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleImportResult{" +
+                "imported=" + imported +
+                ", committed=" + committed +
+                ", elapsedMillis=" + elapsedMillis +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.Author;
+import com.example.articles.entities.Tag;
+import com.example.articles.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Пакетный импорт статей из потока записей (NDJSON/CSV, см. ArticleImportReader).
+// Авторы и теги сопоставляются по имени через карты имя -> id в памяти; недостающие создаются один раз -
+// вставкой, а если имя уже занято (уникальные индексы ux_author_name, ux_tag_name: автора или тег только что
+// создал параллельный импорт или пользователь) - чтением существующей строки,
+// статьи пишутся через StatelessSession пакетами JDBC (id из article_seq блоками по 50),
+// связи с тегами - одним многострочным INSERT на порцию. Каждая порция - своя транзакция:
+// после сбоя сохранённые порции остаются, а импорт продолжается с записи committed (параметр skip).
+@Component
+public class ArticleImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleImporter.class);
+
+    private static final int NAME_ATTEMPTS = 3;
+
+    private final SessionFactory sessionFactory;
+    private final AuthorService authorService;
+    private final TagService tagService;
+    private final ArticleSearchIndex searchIndex;
+    private final ArticleSlugs slugs;
+    private final TagUsageCounters tagUsage;
+    private final int chunkSize;
+
+    public ArticleImporter(EntityManagerFactory entityManagerFactory,
+                           AuthorService authorService,
+                           TagService tagService,
+                           ArticleSearchIndex searchIndex,
+                           ArticleSlugs slugs,
+                           TagUsageCounters tagUsage,
+                           @Value("${articles.import.chunk-size:1000}") int chunkSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.authorService = authorService;
+        this.tagService = tagService;
+        this.searchIndex = searchIndex;
+        this.slugs = slugs;
+        this.tagUsage = tagUsage;
+        this.chunkSize = chunkSize;
+    }
+
+    // skip - сколько записей от начала входа уже импортировано раньше (они читаются, но не пишутся)
+    public ArticleImportResult importArticles(ArticleImportReader reader, Long ownerId, long skip) {
+        long start = System.currentTimeMillis();
+        Map<String, Long> authorIds = new HashMap<>();
+        authorService.getAllAuthors().forEach(author -> authorIds.put(author.getName(), author.getId()));
+        Map<String, Long> tagIds = new HashMap<>();
+        tagService.getAllTags().forEach(tag -> tagIds.put(tag.getName(), tag.getId()));
+
+        long position = 0;
+        long committed = 0;
+        List<ArticleImportRecord> chunk = new ArrayList<>(chunkSize);
+        String error = null;
+        try {
+            while (true) {
+                ArticleImportRecord record;
+                try {
+                    record = reader.next();
+                    if (record != null && position >= skip) {
+                        validate(record);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Всё, что было до неверной записи, сохраняем: продолжать можно прямо с неё
+                    write(chunk, ownerId, authorIds, tagIds);
+                    committed = position;
+                    error = "Запись " + (position + 1) + ": " + e.getMessage();
+                    break;
+                }
+                if (record == null) {
+                    write(chunk, ownerId, authorIds, tagIds);
+                    committed = position;
+                    break;
+                }
+                position++;
+                if (position <= skip) {
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, ownerId, authorIds, tagIds);
+                    committed = position;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Ошибка чтения входа или записи порции: сохранено всё до начала текущей порции
+            log.warn("Импорт статей прерван после {} записей", committed, e);
+            error = "Запись " + (committed + 1) + " и далее не сохранены: " + e.getMessage();
+        }
+        long imported = Math.max(0, committed - skip);
+        ArticleImportResult result = new ArticleImportResult(imported, Math.max(committed, skip),
+                System.currentTimeMillis() - start, error);
+        log.info("Импорт статей: {}", result);
+        return result;
+    }
+
+    // Проверка и нормализация имён: дальше автор и теги используются как ключи карт
+    private static void validate(ArticleImportRecord record) {
+        if (record.getTitle() == null || record.getTitle().isBlank()) {
+            throw new IllegalArgumentException("не указан title");
+        }
+        if (record.getAuthor() == null || record.getAuthor().isBlank()) {
+            throw new IllegalArgumentException("не указан author");
+        }
+        record.setAuthor(record.getAuthor().trim());
+        record.setTags(new ArrayList<>(record.getTags().stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList()));
+    }
+
+    private void write(List<ArticleImportRecord> chunk, Long ownerId,
+                       Map<String, Long> authorIds, Map<String, Long> tagIds) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Новые авторы и теги создаются до транзакции порции (их немного, и они нужны и следующим порциям)
+        for (ArticleImportRecord record : chunk) {
+            authorIds.computeIfAbsent(record.getAuthor(), this::createAuthor);
+            for (String tag : record.getTags()) {
+                tagIds.computeIfAbsent(tag, this::createTag);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+        List<Article> articles;
+        for (int attempt = 1; ; attempt++) {
+            // Slug из записи или из заголовка, занятые (в БД и внутри порции) - с суффиксом -2, -3, ...
+            List<String> chunkSlugs = slugs.unique(chunk.stream().map(ArticleImportRecord::getSlug).toList(),
+                    chunk.stream().map(ArticleImportRecord::getTitle).toList());
+            try {
+                articles = insert(chunk, chunkSlugs, ownerId, authorIds, tagIds, now);
+                break;
+            } catch (RuntimeException e) {
+                // Slug занят параллельной транзакцией после проверки - порция повторяется с новыми суффиксами
+                if (attempt == ArticleSlugs.CONFLICT_ATTEMPTS || !ArticleSlugs.isConflict(e)) {
+                    throw e;
+                }
+                log.info("Импорт статей: slug порции занят параллельно, повтор ({})", attempt);
+            }
+        }
+        articles.forEach(article -> {
+            searchIndex.index(article);
+            slugs.put(article.getSlug(), article.getId());
+        });
+        tagUsage.added(chunk.stream().flatMap(record -> record.getTags().stream()).map(tagIds::get).toList(), now);
+        chunk.clear();
+    }
+
+    // Статьи порции и их связи с тегами - одна транзакция
+    private List<Article> insert(List<ArticleImportRecord> chunk, List<String> chunkSlugs, Long ownerId,
+                                 Map<String, Long> authorIds, Map<String, Long> tagIds, LocalDateTime now) {
+        List<Article> articles = new ArrayList<>(chunk.size());
+        StringBuilder tagLinks = new StringBuilder();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(chunkSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ArticleImportRecord record = chunk.get(i);
+                    Article article = new Article();
+                    article.setTitle(record.getTitle());
+                    article.setSlug(chunkSlugs.get(i));
+                    article.setDescription(record.getDescription());
+                    article.setBody(record.getBody());
+                    article.setCreatedAt(record.getCreatedAt() != null ? record.getCreatedAt() : now);
+                    article.setUpdatedAt(now);
+                    article.setAuthor(authorRef(authorIds.get(record.getAuthor())));
+                    article.setOwner(userRef(ownerId));
+                    session.insert(article);
+                    articles.add(article);
+
+                    for (String tag : record.getTags()) {
+                        Long tagId = tagIds.get(tag);
+                        tagLinks.append(tagLinks.isEmpty() ? "" : ",")
+                                .append('(').append(article.getId()).append(',').append(tagId).append(')');
+                    }
+                }
+                // Значения - только сгенерированные id, поэтому их можно подставить в текст запроса.
+                // Неполный пакет статей сначала отправляется в БД: native-запрос его сам не выполнит
+                if (!tagLinks.isEmpty()) {
+                    ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+                    session.createNativeMutationQuery("insert into article_tag (article_id, tag_id) values " + tagLinks)
+                            .executeUpdate();
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+        return articles;
+    }
+
+    private Long createAuthor(String name) {
+        return insertOrSelect(name, () -> {
+            Author author = new Author();
+            author.setName(name);
+            return authorService.createAuthor(author).getId();
+        }, authorService::findAuthorId);
+    }
+
+    private Long createTag(String name) {
+        return insertOrSelect(name, () -> {
+            Tag tag = new Tag();
+            tag.setName(name);
+            return tagService.createTag(tag).getId();
+        }, tagService::findTagId);
+    }
+
+    // Вставка; при нарушении уникальности - id уже существующей строки. Если и её не найти
+    // (удалили между вставкой и чтением), вставка повторяется
+    private static Long insertOrSelect(String name, Supplier<Long> insert, Function<String, Optional<Long>> select) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return insert.get();
+            } catch (DataIntegrityViolationException e) {
+                Optional<Long> existing = select.apply(name);
+                if (existing.isPresent()) {
+                    return existing.get();
+                }
+                if (attempt == NAME_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static Author authorRef(Long id) {
+        Author author = new Author();
+        author.setId(id);
+        return author;
+    }
+
+    private static User userRef(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
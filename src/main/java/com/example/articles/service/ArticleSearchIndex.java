@@ -0,0 +1,367 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.repositories.ArticleRepository;
+import com.example.articles.repositories.ArticleSearchRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// Инвертированный индекс по заголовку, описанию и содержимому статей.
+// Поиск: все слова запроса должны встретиться в статье, каждое слово ищется как префикс термина.
+// Индекс строится при старте и поддерживается ArticleServiceImpl при создании/изменении/удалении статей.
+@Component
+public class ArticleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+    private static final int BUILD_CHUNK_SIZE = 1000;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final long[] EMPTY = new long[0];
+    private static final String[] NO_TERMS = new String[0];
+
+    // Порядок ленты: createdAt по возрастанию, затем id (ленты читаются в обратном порядке)
+    private static final Comparator<Doc> FEED_ORDER = Comparator
+            .comparing((Doc d) -> d.createdAt)
+            .thenComparingLong(d -> d.id);
+
+    private final ArticleRepository articleRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // термин -> отсортированные id статей (словарь отсортирован, чтобы искать по префиксу).
+    // Термин без статей удаляется, поэтому словарь не растёт от изменённых и удалённых статей
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    // id статьи -> её термины и дата создания
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // статьи, удалённые во время первичного построения (их не должен вернуть построитель)
+    private final Set<Long> removedDuringBuild = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public ArticleSearchIndex(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Первичное построение индекса: статьи читаются порциями, без связей и без загрузки сущностей
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        while (true) {
+            List<ArticleSearchRow> rows = articleRepository.findSearchRows(lastId, Limit.of(BUILD_CHUNK_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            lock.writeLock().lock();
+            try {
+                for (ArticleSearchRow row : rows) {
+                    long id = row.getId();
+                    // Более свежие данные могли прийти от сервиса, пока шло построение
+                    if (!docs.containsKey(id) && !removedDuringBuild.contains(id)) {
+                        put(id, row.getCreatedAt(), row.getTitle(), row.getDescription(), row.getBody());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastId = rows.get(rows.size() - 1).getId();
+        }
+
+        lock.writeLock().lock();
+        try {
+            removedDuringBuild.clear();
+            ready = true;
+            log.info("Поисковый индекс построен: {} статей, {} терминов за {} мс",
+                    docs.size(), dictionary.size(), System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Article article) {
+        long id = article.getId();
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            removedDuringBuild.remove(id);
+            put(id, article.getCreatedAt(), article.getTitle(), article.getDescription(), article.getBody());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long articleId) {
+        long id = articleId;
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            if (!ready) {
+                removedDuringBuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // id найденных статей строго после курсора в порядке ленты (createdAt DESC, id DESC);
+    // null-курсор - с начала ленты
+    public List<Long> findOlder(String query, LocalDateTime createdAt, Long id, int limit) {
+        Doc cursor = createdAt != null ? new Doc(id, NO_TERMS, createdAt) : null;
+        return top(query, limit, FEED_ORDER, doc -> cursor == null || FEED_ORDER.compare(doc, cursor) < 0);
+    }
+
+    // id найденных статей строго перед курсором по возрастанию (createdAt ASC, id ASC)
+    public List<Long> findNewer(String query, LocalDateTime createdAt, Long id, int limit) {
+        Doc cursor = new Doc(id, NO_TERMS, createdAt);
+        return top(query, limit, FEED_ORDER.reversed(), doc -> FEED_ORDER.compare(doc, cursor) > 0);
+    }
+
+    // Отбираем limit "наибольших" по order документов без полной сортировки всех совпадений
+    private List<Long> top(String query, int limit, Comparator<Doc> order, Predicate<Doc> filter) {
+        PriorityQueue<Doc> heap = new PriorityQueue<>(limit + 1, order);
+        lock.readLock().lock();
+        try {
+            for (long id : match(query)) {
+                Doc doc = docs.get(id);
+                if (doc == null || !filter.test(doc)) {
+                    continue;
+                }
+                heap.add(doc);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().id);
+        }
+        // Из кучи элементы выходят от "меньшего" к "большему" - разворачиваем
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Пересечение списков статей для всех слов запроса; вызывается под read-lock
+    private long[] match(String query) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return EMPTY;
+        }
+        List<long[]> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            long[] ids = prefixUnion(token);
+            if (ids.length == 0) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        // Пересекаем начиная с самых коротких списков
+        lists.sort(Comparator.comparingInt(a -> a.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    // Объединение списков всех терминов с префиксом. Списки уже отсортированы - сливаются попарно
+    // (O(N log k) для k терминов), без копирования всех id в один массив и его сортировки
+    private long[] prefixUnion(String prefix) {
+        List<Postings> runs = new ArrayList<>(
+                dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+        if (runs.isEmpty()) {
+            return EMPTY;
+        }
+        while (runs.size() > 1) {
+            List<Postings> merged = new ArrayList<>((runs.size() + 1) / 2);
+            for (int i = 0; i < runs.size(); i += 2) {
+                merged.add(i + 1 < runs.size() ? union(runs.get(i), runs.get(i + 1)) : runs.get(i));
+            }
+            runs = merged;
+        }
+        Postings result = runs.get(0);
+        return Arrays.copyOf(result.ids, result.size);
+    }
+
+    // Слияние двух отсортированных списков без повторов (статья может содержать оба термина)
+    private static Postings union(Postings a, Postings b) {
+        long[] out = new long[a.size + b.size];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size && j < b.size) {
+            if (a.ids[i] < b.ids[j]) {
+                out[n++] = a.ids[i++];
+            } else if (a.ids[i] > b.ids[j]) {
+                out[n++] = b.ids[j++];
+            } else {
+                out[n++] = a.ids[i++];
+                j++;
+            }
+        }
+        while (i < a.size) {
+            out[n++] = a.ids[i++];
+        }
+        while (j < b.size) {
+            out[n++] = b.ids[j++];
+        }
+        return new Postings(out, n);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // Вызывается под write-lock
+    private void put(long id, LocalDateTime createdAt, String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+        for (String token : tokens) {
+            dictionary.computeIfAbsent(token, term -> new Postings()).add(id);
+        }
+        docs.put(id, new Doc(id, tokens.toArray(NO_TERMS), createdAt != null ? createdAt : LocalDateTime.MIN));
+    }
+
+    // Вызывается под write-lock; термины, у которых не осталось статей, уходят из словаря
+    private void removeDoc(long id) {
+        Doc doc = docs.remove(id);
+        if (doc != null) {
+            for (String term : doc.terms) {
+                Postings postings = dictionary.get(term);
+                postings.remove(id);
+                if (postings.size == 0) {
+                    dictionary.remove(term);
+                }
+            }
+        }
+    }
+
+    // Разбиение текста на слова: буквы и цифры в нижнем регистре, остальное - разделители
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Doc {
+        final long id;
+        final String[] terms;
+        final LocalDateTime createdAt;
+
+        Doc(long id, String[] terms, LocalDateTime createdAt) {
+            this.id = id;
+            this.terms = terms;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // Отсортированный по возрастанию список id статей на примитивном массиве
+    private static final class Postings {
+        long[] ids;
+        int size;
+
+        Postings() {
+            this(new long[4], 0);
+        }
+
+        Postings(long[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        void add(long id) {
+            // Новые статьи получают возрастающие id - обычно это просто добавление в конец
+            int pos = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                pos = -pos - 1;
+            } else if (pos < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                size--;
+            }
+        }
+    }
+}
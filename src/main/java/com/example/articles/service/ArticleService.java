@@ -1,18 +1,34 @@
 package com.example.articles.service;
 
 import com.example.articles.entities.Article;
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.ArticleDocument;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ArticleService {
     List<Article> findAll();
-    List<Article> getAllArticles();
+    CursorPage<ArticleCard> getArticleCards(String cursor, int size);
     Optional<Article> getArticleById(Long id);
+    // Статья по slug публичной ссылки: id из кэша ArticleSlugs, дальше - как getArticleById
+    Optional<Article> getArticleBySlug(String slug);
     Article createArticle(Article article);
     Article updateArticle(Long id, Article updatedArticle);
+    // Создание/обновление с разрешением автора и тегов по id в одной транзакции
+    Article createArticle(Article article, Long authorId, Collection<Long> tagIds, Long ownerId);
+    Article updateArticle(Long id, Article updatedArticle, Long authorId, Collection<Long> tagIds);
     void deleteArticle(Long id);
-    List<Article> getArticlesByAuthor(Long authorId);
-    List<Article> getArticlesByTag(Long tagId);
-    List<Article> searchArticles(String query);
+    // Карточки для страниц-списков (без содержимого статьи и коллекций)
+    CursorPage<ArticleCard> getArticleCardsByAuthor(Long authorId, String cursor, int size);
+    CursorPage<ArticleCard> getArticleCardsByTag(Long tagId, String cursor, int size);
+    CursorPage<ArticleCard> searchArticleCards(String query, String cursor, int size);
+    // Те же страницы без тегов - один запрос; по ним проверяется ETag, теги догружаются fillTags
+    CursorPage<ArticleCard> getArticleCardsWithoutTags(String cursor, int size);
+    CursorPage<ArticleCard> getArticleCardsByAuthorWithoutTags(Long authorId, String cursor, int size);
+    CursorPage<ArticleCard> getArticleCardsByTagWithoutTags(Long tagId, String cursor, int size);
+    void fillTags(List<ArticleCard> cards);
+    // Статья целиком для JSON API: два запроса (статья с автором и владельцем, теги), без загрузки сущностей
+    Optional<ArticleDocument> getArticleDocument(Long id);
 
 }
@@ -1,25 +1,83 @@
 package com.example.articles.service;
 
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.Article;
+import com.example.articles.entities.Tag;
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.ArticleDocument;
 import com.example.articles.repositories.ArticleRepository;
+import com.example.articles.repositories.ArticleTagRow;
+import com.example.articles.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ArticleServiceImpl implements ArticleService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ArticleRepository articleRepository;
+    private final ArticleSearchIndex searchIndex;
+    private final AuthorService authorService;
+    private final TagService tagService;
+    private final UserRepository userRepository;
+    private final ChunkedDeleter chunkedDeleter;
+    private final ArticleCardCache cardCache;
+    private final ArticleSlugs slugs;
+    private final TagUsageCounters tagUsage;
+    private final TransactionTemplate tx;
 
-    public ArticleServiceImpl(ArticleRepository articleRepository) {
+    public ArticleServiceImpl(ArticleRepository articleRepository,
+                              ArticleSearchIndex searchIndex,
+                              AuthorService authorService,
+                              TagService tagService,
+                              UserRepository userRepository,
+                              ChunkedDeleter chunkedDeleter,
+                              ArticleCardCache cardCache,
+                              ArticleSlugs slugs,
+                              TagUsageCounters tagUsage,
+                              PlatformTransactionManager transactionManager) {
         this.articleRepository = articleRepository;
+        this.searchIndex = searchIndex;
+        this.authorService = authorService;
+        this.tagService = tagService;
+        this.userRepository = userRepository;
+        this.chunkedDeleter = chunkedDeleter;
+        this.cardCache = cardCache;
+        this.slugs = slugs;
+        this.tagUsage = tagUsage;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public List<Article> getAllArticles() {
-        return articleRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleCard> getArticleCards(String cursor, int size) {
+        return withTags(getArticleCardsWithoutTags(cursor, size));
+    }
+
+    @Override
+    public CursorPage<ArticleCard> getArticleCardsWithoutTags(String cursor, int size) {
+        return page(cursor, size,
+                (c, limit) -> articleRepository.findOlder(createdAt(c), id(c), limit),
+                (c, limit) -> articleRepository.findNewer(c.getCreatedAt(), c.getId(), limit));
     }
 
     @Override
@@ -27,54 +85,273 @@ public class ArticleServiceImpl implements ArticleService {
         return articleRepository.findById(id);
     }
 
+    @Override
+    public Optional<Article> getArticleBySlug(String slug) {
+        Long id = slugs.resolve(slug);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Article> article = articleRepository.findById(id);
+        if (article.isPresent() && slug.equals(article.get().getSlug())) {
+            return article;
+        }
+        // Запись кэша устарела (статью удалили вне сервиса или slug сменился) - сверяемся с БД ещё раз
+        slugs.evict(slug);
+        id = slugs.resolve(slug);
+        return id != null ? articleRepository.findById(id) : Optional.empty();
+    }
+
     @Override
     public Article createArticle(Article article) {
-        article.setCreatedAt(LocalDateTime.now());
-        article.setUpdatedAt(LocalDateTime.now());
-        return articleRepository.save(article);
+        return retryingSlugConflict(() -> create(article), () -> {
+            article.setId(null);
+            // persist заменил набор тегов своей обёрткой, привязанной к закрытой сессии
+            article.setTags(new HashSet<>(article.getTags()));
+        });
     }
 
     @Override
     public Article updateArticle(Long id, Article updatedArticle) {
+        return retryingSlugConflict(() -> update(id, updatedArticle), () -> { });
+    }
+
+    @Override
+    public Article createArticle(Article article, Long authorId, Collection<Long> tagIds, Long ownerId) {
+        return retryingSlugConflict(() -> {
+            article.setAuthor(authorService.getAuthorById(authorId));
+            // Все теги одним запросом, независимо от их количества
+            article.setTags(tagService.getTagsByIds(tagIds));
+            article.setOwner(userRepository.getReferenceById(ownerId));
+            return create(article);
+        }, () -> article.setId(null));
+    }
+
+    @Override
+    public Article updateArticle(Long id, Article updatedArticle, Long authorId, Collection<Long> tagIds) {
+        return retryingSlugConflict(() -> {
+            updatedArticle.setAuthor(authorService.getAuthorById(authorId));
+            updatedArticle.setTags(tagService.getTagsByIds(tagIds));
+            return update(id, updatedArticle);
+        }, () -> { });
+    }
+
+    // Запись статьи в своей транзакции. Slug проверяется до вставки, и параллельная транзакция может занять
+    // его раньше - тогда отказ ux_article_slug (при фиксации) и повтор: unique выдаст уже следующий свободный.
+    // reset - откат изменений объекта неудавшейся попыткой (id новой статьи). Внутри чужой транзакции
+    // повторять нельзя - она уже помечена к откату, поэтому тогда попытка одна
+    private Article retryingSlugConflict(Supplier<Article> write, Runnable reset) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return write.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status -> write.get());
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == ArticleSlugs.CONFLICT_ATTEMPTS || !ArticleSlugs.isConflict(e)) {
+                    throw e;
+                }
+                reset.run();
+            }
+        }
+    }
+
+    private Article create(Article article) {
+        article.setCreatedAt(LocalDateTime.now());
+        article.setUpdatedAt(LocalDateTime.now());
+        // Slug из формы или из заголовка; занятый получает суффикс -2, -3, ...
+        article.setSlug(slugs.unique(article.getSlug(), article.getTitle(), null));
+        Article saved = articleRepository.save(article);
+        List<Long> tagIds = tagIds(saved.getTags());
+        AfterCommit.run(() -> {
+            searchIndex.index(saved);
+            slugs.put(saved.getSlug(), saved.getId());
+            tagUsage.added(tagIds, saved.getCreatedAt());
+        });
+        return saved;
+    }
+
+    private Article update(Long id, Article updatedArticle) {
         return articleRepository.findById(id)
                 .map(article -> {
+                    // Slug - часть публичной ссылки: без нового значения остаётся прежним
+                    String oldSlug = article.getSlug();
+                    if (oldSlug == null || (updatedArticle.getSlug() != null && !updatedArticle.getSlug().isBlank())) {
+                        article.setSlug(slugs.unique(updatedArticle.getSlug(), updatedArticle.getTitle(), oldSlug));
+                    }
                     // Обновляем скалярные поля
                     article.setTitle(updatedArticle.getTitle());
                     article.setDescription(updatedArticle.getDescription());
-                    article.setSlug(updatedArticle.getSlug());
                     article.setBody(updatedArticle.getBody());
                     article.setUpdatedAt(LocalDateTime.now());
-                    // Обновляем ассоциации (автор и теги)
+                    // Обновляем ассоциации (автор и теги); разница наборов тегов - для статистики тегов
+                    List<Long> oldTagIds = tagIds(article.getTags());
+                    List<Long> newTagIds = tagIds(updatedArticle.getTags());
+                    List<Long> addedTagIds = newTagIds.stream().filter(tagId -> !oldTagIds.contains(tagId)).toList();
+                    List<Long> removedTagIds = oldTagIds.stream().filter(tagId -> !newTagIds.contains(tagId)).toList();
                     article.setAuthor(updatedArticle.getAuthor());
                     article.setTags(updatedArticle.getTags());
                     // НЕ заменяем коллекции комментариев и избранного – оставляем их как есть
-                    return articleRepository.save(article);
+                    Article saved = articleRepository.save(article);
+                    AfterCommit.run(() -> {
+                        searchIndex.index(saved);
+                        cardCache.evict(saved.getId());
+                        tagUsage.added(addedTagIds, saved.getUpdatedAt());
+                        tagUsage.removed(removedTagIds);
+                        if (!saved.getSlug().equals(oldSlug)) {
+                            slugs.evict(oldSlug);
+                            slugs.put(saved.getSlug(), saved.getId());
+                        }
+                    });
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Article not found with id " + id));
     }
 
     @Override
     public void deleteArticle(Long id) {
-        articleRepository.deleteById(id);
+        // Комментарии и избранное удаляются bulk-запросами порциями, а не каскадом по одной строке
+        chunkedDeleter.deleteArticles(List.of(id));
+        cardCache.evict(id);
+        slugs.evictArticle(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleCard> getArticleCardsByAuthor(Long authorId, String cursor, int size) {
+        return withTags(getArticleCardsByAuthorWithoutTags(authorId, cursor, size));
+    }
+
+    @Override
+    public CursorPage<ArticleCard> getArticleCardsByAuthorWithoutTags(Long authorId, String cursor, int size) {
+        return page(cursor, size,
+                (c, limit) -> articleRepository.findOlderByAuthor(authorId, createdAt(c), id(c), limit),
+                (c, limit) -> articleRepository.findNewerByAuthor(authorId, c.getCreatedAt(), c.getId(), limit));
     }
 
     @Override
-    public List<Article> getArticlesByAuthor(Long authorId) {
-        return articleRepository.findByAuthor_Id(authorId);
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleCard> getArticleCardsByTag(Long tagId, String cursor, int size) {
+        return withTags(getArticleCardsByTagWithoutTags(tagId, cursor, size));
     }
 
     @Override
-    public List<Article> getArticlesByTag(Long tagId) {
-        return articleRepository.findByTags_Id(tagId);
+    public CursorPage<ArticleCard> getArticleCardsByTagWithoutTags(Long tagId, String cursor, int size) {
+        return page(cursor, size,
+                (c, limit) -> articleRepository.findOlderByTag(tagId, createdAt(c), id(c), limit),
+                (c, limit) -> articleRepository.findNewerByTag(tagId, c.getCreatedAt(), c.getId(), limit));
     }
 
     @Override
-    public List<Article> searchArticles(String query) {
-        return articleRepository.findByTitleContainingIgnoreCaseOrBodyContainingIgnoreCase(query, query);
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleCard> searchArticleCards(String query, String cursor, int size) {
+        if (searchIndex.isReady()) {
+            // Индекс отдаёт id одной страницы, из БД читаем только их
+            return withTags(page(cursor, size,
+                    (c, limit) -> findInOrder(searchIndex.findOlder(query, createdAt(c), id(c), limit.max())),
+                    (c, limit) -> findInOrder(searchIndex.findNewer(query, c.getCreatedAt(), c.getId(), limit.max()))));
+        }
+        // Индекс ещё строится после старта - ищем по БД
+        return withTags(page(cursor, size,
+                (c, limit) -> articleRepository.searchOlder(query, createdAt(c), id(c), limit),
+                (c, limit) -> articleRepository.searchNewer(query, c.getCreatedAt(), c.getId(), limit)));
     }
 
     @Override
     public List<Article> findAll() {
         return articleRepository.findAll();
     }
+
+    // Загружает карточки по id, сохраняя порядок id
+    private List<ArticleCard> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ArticleCard> byId = new HashMap<>();
+        for (ArticleCard card : articleRepository.findCardsByIdIn(ids)) {
+            byId.put(card.getId(), card);
+        }
+        List<ArticleCard> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ArticleCard card = byId.get(id);
+            if (card != null) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    // Запрос одной страницы в заданном направлении от курсора
+    private interface KeysetQuery {
+        List<ArticleCard> fetch(ArticleCursor cursor, Limit limit);
+    }
+
+    // Читаем на одну запись больше размера страницы, чтобы узнать, есть ли следующая страница.
+    // Стоимость запроса не зависит от того, насколько далеко курсор от начала ленты.
+    private CursorPage<ArticleCard> page(String token, int size, KeysetQuery older, KeysetQuery newer) {
+        ArticleCursor cursor = ArticleCursor.decode(token);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        boolean backward = cursor != null && cursor.getDirection() == ArticleCursor.Direction.PREV;
+        List<ArticleCard> rows = backward ? newer.fetch(cursor, limit) : older.fetch(cursor, limit);
+        boolean more = rows.size() > pageSize;
+        List<ArticleCard> items = more ? rows.subList(0, pageSize) : rows;
+        if (backward) {
+            // Запрос "назад" возвращает статьи по возрастанию - разворачиваем к порядку ленты
+            items = new ArrayList<>(items);
+            Collections.reverse(items);
+        }
+        if (items.isEmpty()) {
+            return new CursorPage<>(items, null, null);
+        }
+
+        boolean hasNext = backward || more;
+        boolean hasPrev = backward ? more : cursor != null;
+        ArticleCard first = items.get(0);
+        ArticleCard last = items.get(items.size() - 1);
+        String next = hasNext ? new ArticleCursor(last.getCreatedAt(), last.getId(), ArticleCursor.Direction.NEXT).encode() : null;
+        String prev = hasPrev ? new ArticleCursor(first.getCreatedAt(), first.getId(), ArticleCursor.Direction.PREV).encode() : null;
+        return new CursorPage<>(items, next, prev);
+    }
+
+    private CursorPage<ArticleCard> withTags(CursorPage<ArticleCard> page) {
+        fillTags(page.getItems());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ArticleDocument> getArticleDocument(Long id) {
+        Optional<ArticleDocument> document = articleRepository.findDocumentById(id);
+        document.ifPresent(found -> articleRepository.findTagRows(List.of(id)).forEach(row ->
+                found.getTags().add(new ArticleCard.TagRef(row.getTagId(), row.getTagName()))));
+        return document;
+    }
+
+    // Теги всей страницы - одним дополнительным запросом вместо запроса на каждую карточку
+    @Override
+    public void fillTags(List<ArticleCard> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        Map<Long, ArticleCard> byId = new HashMap<>();
+        for (ArticleCard card : cards) {
+            byId.put(card.getId(), card);
+        }
+        for (ArticleTagRow row : articleRepository.findTagRows(byId.keySet())) {
+            byId.get(row.getArticleId()).getTags().add(new ArticleCard.TagRef(row.getTagId(), row.getTagName()));
+        }
+    }
+
+    private static LocalDateTime createdAt(ArticleCursor cursor) {
+        return cursor != null ? cursor.getCreatedAt() : null;
+    }
+
+    private static Long id(ArticleCursor cursor) {
+        return cursor != null ? cursor.getId() : null;
+    }
+
+    private static List<Long> tagIds(Collection<Tag> tags) {
+        return tags.stream().map(Tag::getId).toList();
+    }
 }
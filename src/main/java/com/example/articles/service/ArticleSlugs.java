@@ -0,0 +1,229 @@
+package com.example.articles.service;
+
+import com.example.articles.repositories.ArticleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Slug статей: генерация из заголовка (латиница, цифры и "-", кириллица транслитерируется),
+// уникальность через суффиксы -2, -3, ... и кэш slug -> id для публичных ссылок /articles/s/{slug}.
+// Занятость проверяется точечными запросами по ux_article_slug; последний выданный суффикс каждой основы
+// запоминается, поэтому повторная коллизия проверяет один следующий номер, а не читает все base-N.
+// Проверка и вставка не атомарны: slug, который параллельная транзакция заняла между ними, отвергает
+// ux_article_slug, и пишущий код повторяет транзакцию со следующим свободным (isConflict, CONFLICT_ATTEMPTS).
+// Кэш ограничен по размеру, обратная карта id -> slug повторяет его записи (удаление статьи по id без перебора).
+// ArticleServiceImpl обновляет кэш после фиксации изменений, а устаревшие записи (статью удалили вместе
+// с владельцем) отбрасываются при чтении - см. ArticleServiceImpl.getArticleBySlug
+@Component
+public class ArticleSlugs {
+
+    static final int MAX_LENGTH = 80;
+    private static final String FALLBACK = "article";
+    private static final String[] CYRILLIC = {
+            "a", "b", "v", "g", "d", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p",
+            "r", "s", "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya"};
+
+    private static final int MAX_SUFFIX_BASES = 10_000;
+
+    // Сколько раз пишущий код пробует транзакцию, проигрывающую гонку за slug
+    static final int CONFLICT_ATTEMPTS = 3;
+
+    private final ArticleRepository articleRepository;
+    private final Cache<String, Long> cache;
+    private final Map<Long, String> slugsById = new ConcurrentHashMap<>();
+    private final Cache<String, AtomicInteger> lastSuffixes;
+
+    public ArticleSlugs(ArticleRepository articleRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${articles.slug-cache.maximum-size:100000}") long maximumSize) {
+        this.articleRepository = articleRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .evictionListener((String slug, Long articleId, RemovalCause cause) -> {
+                    if (articleId != null) {
+                        slugsById.remove(articleId, slug);
+                    }
+                })
+                .build();
+        this.lastSuffixes = Caffeine.newBuilder()
+                .maximumSize(MAX_SUFFIX_BASES)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "articleSlugs");
+    }
+
+    // id статьи по slug: из кэша или одним запросом по индексу. Отсутствующие slug не кэшируются
+    public Long resolve(String slug) {
+        return cache.get(slug, key -> {
+            Long articleId = articleRepository.findIdBySlug(key).orElse(null);
+            if (articleId != null) {
+                remember(articleId, key);
+            }
+            return articleId;
+        });
+    }
+
+    public void put(String slug, Long articleId) {
+        if (slug != null) {
+            Long previous = cache.asMap().put(slug, articleId);
+            if (previous != null && !previous.equals(articleId)) {
+                slugsById.remove(previous, slug);
+            }
+            remember(articleId, slug);
+        }
+    }
+
+    public void evict(String slug) {
+        if (slug != null) {
+            Long articleId = cache.asMap().remove(slug);
+            if (articleId != null) {
+                slugsById.remove(articleId, slug);
+            }
+        }
+    }
+
+    // Удаление по id: slug берётся из обратной карты
+    public void evictArticle(Long articleId) {
+        String slug = slugsById.remove(articleId);
+        if (slug != null) {
+            cache.asMap().remove(slug, articleId);
+        }
+    }
+
+    // Свободный slug для статьи: из requested, если задан, иначе из заголовка. current - нынешний slug
+    // статьи (при изменении), он свободен для неё самой
+    public String unique(String requested, String title, String current) {
+        String base = slugify(requested != null && !requested.isBlank() ? requested : title);
+        if (base.equals(current) || !taken(base)) {
+            return base;
+        }
+        return nextFree(base, current, Set.of());
+    }
+
+    // Свободные slug для порции новых статей (импорт): какие из основ уже заняты, узнаём одним запросом,
+    // суффиксы - как у одиночной статьи. Повторы внутри порции тоже получают суффиксы
+    public List<String> unique(List<String> requested, List<String> titles) {
+        List<String> bases = new ArrayList<>(titles.size());
+        for (int i = 0; i < titles.size(); i++) {
+            String slug = requested.get(i);
+            bases.add(slugify(slug != null && !slug.isBlank() ? slug : titles.get(i)));
+        }
+        Set<String> taken = new HashSet<>(articleRepository.findSlugsIn(new HashSet<>(bases)));
+        List<String> slugs = new ArrayList<>(bases.size());
+        for (String base : bases) {
+            String slug = taken.contains(base) ? nextFree(base, null, taken) : base;
+            taken.add(slug);
+            slugs.add(slug);
+        }
+        return slugs;
+    }
+
+    // Вставку отверг уникальный индекс slug. Имя индекса есть в сообщении драйвера (MariaDB и H2);
+    // исключение - DataIntegrityViolationException репозиториев или исключение Hibernate StatelessSession
+    static boolean isConflict(RuntimeException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("ux_article_slug");
+    }
+
+    // "Привет, мир!" -> "privet-mir"; не длиннее MAX_LENGTH, для текста без букв и цифр - "article"
+    public static String slugify(String text) {
+        if (text == null) {
+            return FALLBACK;
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder slug = new StringBuilder(Math.min(normalized.length(), MAX_LENGTH));
+        boolean dash = false;
+        for (int i = 0; i < normalized.length() && slug.length() < MAX_LENGTH; i++) {
+            char c = normalized.charAt(i);
+            String latin;
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                latin = String.valueOf(c);
+            } else if (c >= 'а' && c <= 'я') {
+                latin = CYRILLIC[c - 'а'];
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // Диакритика после NFD: "é" -> "e", "ё" -> "e", но "й" разобрана как "и" + знак - берём "y"
+                if (c == '\u0306' && slug.length() > 0 && slug.charAt(slug.length() - 1) == 'i') {
+                    slug.setCharAt(slug.length() - 1, 'y');
+                }
+                continue;
+            } else {
+                dash = slug.length() > 0;
+                continue;
+            }
+            if (latin.isEmpty()) {
+                continue;
+            }
+            if (dash) {
+                slug.append('-');
+                dash = false;
+            }
+            slug.append(latin);
+        }
+        if (slug.length() > MAX_LENGTH) {
+            slug.setLength(MAX_LENGTH);
+        }
+        while (slug.length() > 0 && slug.charAt(slug.length() - 1) == '-') {
+            slug.setLength(slug.length() - 1);
+        }
+        return slug.length() > 0 ? slug.toString() : FALLBACK;
+    }
+
+    // Запись обратной карты; прежний slug статьи (её переименовали) уходит из кэша
+    private void remember(Long articleId, String slug) {
+        String previous = slugsById.put(articleId, slug);
+        if (previous != null && !previous.equals(slug)) {
+            cache.asMap().remove(previous, articleId);
+        }
+    }
+
+    // Следующий свободный base-N после последнего выданного суффикса основы. reserved - уже выданные,
+    // но ещё не сохранённые slug (порция импорта)
+    private String nextFree(String base, String current, Set<String> reserved) {
+        AtomicInteger last = lastSuffixes.get(base, key -> new AtomicInteger(lastTakenSuffix(key)));
+        while (true) {
+            String candidate = base + "-" + last.incrementAndGet();
+            if (candidate.equals(current) || (!reserved.contains(candidate) && !taken(candidate))) {
+                return candidate;
+            }
+        }
+    }
+
+    // Первое обращение к основе после старта: base-2, base-3, ... обычно заняты подряд, и граница
+    // ищется удвоением и делением пополам - O(log N) точечных запросов вместо чтения всех N
+    private int lastTakenSuffix(String base) {
+        int taken = 1;
+        int free = 2;
+        while (taken(base + "-" + free)) {
+            taken = free;
+            free *= 2;
+        }
+        while (free - taken > 1) {
+            int middle = (taken + free) >>> 1;
+            if (taken(base + "-" + middle)) {
+                taken = middle;
+            } else {
+                free = middle;
+            }
+        }
+        return taken;
+    }
+
+    private boolean taken(String slug) {
+        return articleRepository.findIdBySlug(slug).isPresent();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.repositories.ArticleCard;
+import com.example.articles.repositories.ReferenceItem;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Валидаторы (ETag) страниц статей для условных GET. Строятся из того, что страница и так читает первым
+// запросом (статья или карточки страницы), поэтому ответ 304 обходится без тегов, комментариев и Thymeleaf.
+// В версию входят: updatedAt статей, счётчики комментариев и избранного из БД (их и показывает страница) и отдельно
+// ещё не сброшенные приращения (новый комментарий меняет версию сразу, а сброс приращений в БД - ещё раз, вместе
+// с показанным числом), ещё не записанные и не записавшиеся комментарии зрителя, справочник тегов, пользователь (кнопки на странице зависят
+// от прав) и момент запуска приложения (после выкладки новых шаблонов старые версии недействительны).
+@Component
+public class ArticleVersions {
+
+    private final ArticleCounters counters;
+    private final TagService tagService;
+    private final CommentWriteBehind commentWriteBehind;
+    private final long startedAt = System.currentTimeMillis();
+
+    // Отпечаток справочника тегов считается заново, только когда кэш тегов отдаёт новый список
+    private volatile List<ReferenceItem> tagsSnapshot;
+    private volatile String tagsStamp;
+
+    public ArticleVersions(ArticleCounters counters, TagService tagService, CommentWriteBehind commentWriteBehind) {
+        this.counters = counters;
+        this.tagService = tagService;
+        this.commentWriteBehind = commentWriteBehind;
+    }
+
+    public String forArticle(Article article, AuthenticatedUser user) {
+        StringBuilder stamp = start("article", user);
+        append(stamp, article.getId(), article.getUpdatedAt(), article.getCommentCount(), article.getFavoriteCount());
+        // Отдельно от счётчика: при записи комментарий уходит отсюда и добавляется к счётчику,
+        // а при ошибке записи - в незаписанные, которые страница покажет автору
+        if (user != null) {
+            stamp.append(',').append(commentWriteBehind.pending(article.getId(), user.getId()).size())
+                    .append(',').append(commentWriteBehind.failed(article.getId(), user.getId()).size());
+        }
+        return etag(stamp);
+    }
+
+    public String forPage(CursorPage<ArticleCard> page, AuthenticatedUser user) {
+        StringBuilder stamp = start("page", user);
+        for (ArticleCard card : page.getItems()) {
+            append(stamp, card.getId(), card.getUpdatedAt(), card.getCommentCount(), card.getFavoriteCount());
+        }
+        stamp.append(page.hasNext()).append(page.hasPrev());
+        return etag(stamp);
+    }
+
+    private StringBuilder start(String kind, AuthenticatedUser user) {
+        StringBuilder stamp = new StringBuilder(kind).append(':').append(startedAt).append(':').append(tagsStamp());
+        if (user != null) {
+            stamp.append(':').append(user.getId()).append(':').append(user.getRole());
+        }
+        return stamp;
+    }
+
+    private void append(StringBuilder stamp, Long id, Object updatedAt, long comments, long favorites) {
+        stamp.append('|').append(id).append(',').append(updatedAt)
+                .append(',').append(comments).append('+').append(counters.pendingComments(id))
+                .append(',').append(favorites).append('+').append(counters.pendingFavorites(id));
+    }
+
+    private String tagsStamp() {
+        List<ReferenceItem> tags = tagService.getAllTags();
+        if (tags != tagsSnapshot) {
+            StringBuilder stamp = new StringBuilder();
+            for (ReferenceItem tag : tags) {
+                stamp.append(tag.getId()).append('=').append(tag.getName()).append(';');
+            }
+            tagsStamp = DigestUtils.md5DigestAsHex(stamp.toString().getBytes(StandardCharsets.UTF_8));
+            tagsSnapshot = tags;
+        }
+        return tagsStamp;
+    }
+
+    // Слабый валидатор: в разметку встроен CSRF-токен, который маскируется заново в каждом ответе,
+    // поэтому страницы совпадают по смыслу, но не побайтно
+    private static String etag(StringBuilder stamp) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(stamp.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
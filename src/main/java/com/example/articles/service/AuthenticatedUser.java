@@ -0,0 +1,36 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+// Principal аутентифицированного пользователя: кроме имени и пароля хранит id и роль,
+// чтобы контроллерам не нужно было заново читать пользователя из БД на каждый запрос
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+    private final User.Roles role;
+
+    public AuthenticatedUser(Long id, String username, String password, User.Roles role) {
+        super(username, password, List.of(new SimpleGrantedAuthority(
+                role == User.Roles.ADMIN_ROLE ? "ROLE_ADMIN" : "ROLE_USER")));
+        this.id = id;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public User.Roles getRole() {
+        return role;
+    }
+    public boolean isAdmin() {
+        return role == User.Roles.ADMIN_ROLE;
+    }
+
+    // Администратор может менять всё, остальные - только свои записи
+    public boolean canModify(User owner) {
+        return isAdmin() || (owner != null && id.equals(owner.getId()));
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.articles.service;
 
 import com.example.articles.entities.Author;
+import com.example.articles.repositories.ReferenceItem;
 import java.util.List;
+import java.util.Optional;
 
 public interface AuthorService {
-    List<Author> getAllAuthors();
+    // Справочник авторов (id и имя) для форм; неизменяемый, кэшируется
+    List<ReferenceItem> getAllAuthors();
     Author getAuthorById(Long id);
+    // id автора по имени (имя уникально), мимо кэша справочника
+    Optional<Long> findAuthorId(String name);
+    Author createAuthor(Author author);
 }
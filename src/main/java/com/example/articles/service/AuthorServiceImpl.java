@@ -1,11 +1,19 @@
 package com.example.articles.service;
 
+import com.example.articles.config.CacheConfig;
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.Author;
 import com.example.articles.repositories.AuthorRepository;
+import com.example.articles.repositories.ReferenceItem;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
 
@@ -13,9 +21,12 @@ public class AuthorServiceImpl implements AuthorService {
         this.authorRepository = authorRepository;
     }
 
+    // Авторы меняются редко (записи только при заполнении БД и импорте). Как и теги, кэшируются
+    // неизменяемыми ReferenceItem, а не сущностями
     @Override
-    public List<Author> getAllAuthors() {
-        return authorRepository.findAll();
+    @Cacheable(value = CacheConfig.AUTHORS, key = "'all'")
+    public List<ReferenceItem> getAllAuthors() {
+        return List.copyOf(authorRepository.findAllItems());
     }
 
     @Override
@@ -23,4 +34,16 @@ public class AuthorServiceImpl implements AuthorService {
         return authorRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Автор не найден"));
     }
+
+    @Override
+    public Optional<Long> findAuthorId(String name) {
+        return authorRepository.findIdByName(name);
+    }
+
+    // Новые авторы появляются при импорте статей (см. ArticleImporter)
+    @Override
+    @CacheEvict(value = CacheConfig.AUTHORS, allEntries = true)
+    public Author createAuthor(Author author) {
+        return authorRepository.save(author);
+    }
 }
@@ -0,0 +1,142 @@
+package com.example.articles.service;
+
+import com.example.articles.repositories.ArticleChildRow;
+import com.example.articles.repositories.ArticleCommentRepository;
+import com.example.articles.repositories.ArticleFavoriteRepository;
+import com.example.articles.repositories.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Пакетное удаление порциями вместо derived delete и каскадов Hibernate (те загружают каждую сущность
+// и удаляют её отдельным запросом). Порция - короткая транзакция из двух bulk-запросов:
+// выбрать до CHUNK_SIZE id и удалить их одним DELETE ... WHERE id IN (...).
+// Блокировки держатся только на время порции; прерванное удаление можно просто повторить.
+@Component
+class ChunkedDeleter {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedDeleter.class);
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ArticleRepository articleRepository;
+    private final ArticleCommentRepository articleCommentRepository;
+    private final ArticleFavoriteRepository articleFavoriteRepository;
+    private final ArticleCounters articleCounters;
+    private final ArticleSearchIndex searchIndex;
+    private final TagUsageCounters tagUsage;
+    private final TransactionTemplate tx;
+
+    ChunkedDeleter(ArticleRepository articleRepository,
+                   ArticleCommentRepository articleCommentRepository,
+                   ArticleFavoriteRepository articleFavoriteRepository,
+                   ArticleCounters articleCounters,
+                   ArticleSearchIndex searchIndex,
+                   TagUsageCounters tagUsage,
+                   PlatformTransactionManager transactionManager) {
+        this.articleRepository = articleRepository;
+        this.articleCommentRepository = articleCommentRepository;
+        this.articleFavoriteRepository = articleFavoriteRepository;
+        this.articleCounters = articleCounters;
+        this.searchIndex = searchIndex;
+        this.tagUsage = tagUsage;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    // Комментарии пользователя ко всем статьям; счётчики статей уменьшаются после фиксации каждой порции
+    long deleteCommentsByUser(Long userId) {
+        return deleteChildren("комментарии пользователя " + userId,
+                () -> articleCommentRepository.findChunkByUser(userId, Limit.of(CHUNK_SIZE)),
+                articleCommentRepository::deleteAllByIdInBatch,
+                articleCounters::addComments);
+    }
+
+    // Избранное пользователя
+    long deleteFavoritesByUser(Long userId) {
+        return deleteChildren("избранное пользователя " + userId,
+                () -> articleFavoriteRepository.findChunkByUser(userId, Limit.of(CHUNK_SIZE)),
+                articleFavoriteRepository::deleteAllByIdInBatch,
+                articleCounters::addFavorites);
+    }
+
+    // Статьи владельца порциями вместе с их комментариями, избранным и связями с тегами
+    long deleteArticlesByOwner(Long ownerId) {
+        long total = 0;
+        while (true) {
+            List<Long> ids = tx.execute(status -> articleRepository.findIdsByOwner(ownerId, Limit.of(CHUNK_SIZE)));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            deleteArticles(ids);
+            total += ids.size();
+            log.info("Удаление статей владельца {}: удалено {}", ownerId, total);
+        }
+    }
+
+    // Сначала зависимые строки (тоже порциями - у популярной статьи их могут быть десятки тысяч), затем сами статьи
+    void deleteArticles(List<Long> articleIds) {
+        deleteIds(() -> articleCommentRepository.findIdsByArticleIds(articleIds, Limit.of(CHUNK_SIZE)),
+                articleCommentRepository::deleteAllByIdInBatch);
+        deleteIds(() -> articleFavoriteRepository.findIdsByArticleIds(articleIds, Limit.of(CHUNK_SIZE)),
+                articleFavoriteRepository::deleteAllByIdInBatch);
+        tx.executeWithoutResult(status -> {
+            // Связи с тегами читаем до удаления - по ним уменьшается статистика тегов
+            List<Long> tagIds = articleRepository.findTagIdsByArticleIds(articleIds);
+            // Bulk-delete Hibernate сам удаляет строки article_tag (коллекция @ManyToMany) тем же запросом
+            articleRepository.deleteAllByIdInBatch(articleIds);
+            AfterCommit.run(() -> {
+                articleIds.forEach(searchIndex::remove);
+                tagUsage.removed(tagIds);
+            });
+        });
+    }
+
+    private long deleteChildren(String what,
+                                Supplier<List<ArticleChildRow>> nextChunk,
+                                Consumer<List<Long>> delete,
+                                BiConsumer<Long, Long> counter) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = tx.execute(status -> {
+                List<ArticleChildRow> rows = nextChunk.get();
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                delete.accept(rows.stream().map(ArticleChildRow::getId).toList());
+                Map<Long, Long> perArticle = rows.stream()
+                        .collect(Collectors.groupingBy(ArticleChildRow::getArticleId, Collectors.counting()));
+                AfterCommit.run(() -> perArticle.forEach((articleId, n) -> counter.accept(articleId, -n)));
+                return rows.size();
+            });
+            total += deleted;
+            if (deleted > 0) {
+                log.info("Удаление: {} - удалено {}", what, total);
+            }
+        } while (deleted == CHUNK_SIZE);
+        return total;
+    }
+
+    private void deleteIds(Supplier<List<Long>> nextChunk, Consumer<List<Long>> delete) {
+        int deleted;
+        do {
+            deleted = tx.execute(status -> {
+                List<Long> ids = nextChunk.get();
+                if (!ids.isEmpty()) {
+                    delete.accept(ids);
+                }
+                return ids.size();
+            });
+        } while (deleted == CHUNK_SIZE);
+    }
+}
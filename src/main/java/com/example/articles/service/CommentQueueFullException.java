@@ -0,0 +1,9 @@
+package com.example.articles.service;
+
+// Очередь записи комментариев заполнена (или остановлена) - комментарий не принят, клиенту стоит повторить позже
+public class CommentQueueFullException extends IllegalStateException {
+
+    public CommentQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.articles.service;
+
+import com.example.articles.repositories.ArticleCommentRow;
+
+import java.util.List;
+
+public interface CommentService {
+    // Комментарии статьи по порядку создания, страницами "показать ещё"
+    CursorPage<ArticleCommentRow> getComments(Long articleId, String cursor, int size);
+    // Комментарий пишется в БД пакетом вместе с другими (см. CommentWriteBehind); метод ждёт записи
+    // не дольше articles.comments.ack-timeout.
+    // SAVED - комментарий сохранён, PENDING - ещё в очереди (автор уже видит его на странице статьи),
+    // FAILED - не записан. Заполненная очередь - CommentQueueFullException
+    CommentSubmission submitComment(Long articleId, Long userId, String body);
+    // Ещё не записанные комментарии пользователя к статье
+    List<ArticleCommentRow> getPendingComments(Long articleId, AuthenticatedUser user);
+    // Комментарии пользователя к статье, которые не удалось записать; каждый возвращается один раз
+    List<ArticleCommentRow> takeFailedComments(Long articleId, AuthenticatedUser user);
+}
@@ -0,0 +1,105 @@
+package com.example.articles.service;
+
+import com.example.articles.config.MetricsConfig;
+import com.example.articles.entities.ArticleComment;
+import com.example.articles.repositories.ArticleCommentRepository;
+import com.example.articles.repositories.ArticleCommentRow;
+import com.example.articles.repositories.ArticleRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class CommentServiceImpl implements CommentService {
+
+    private final ArticleCommentRepository articleCommentRepository;
+    private final ArticleRepository articleRepository;
+    private final CommentWriteBehind commentWriteBehind;
+    private final Duration ackTimeout;
+
+    public CommentServiceImpl(ArticleCommentRepository articleCommentRepository,
+                              ArticleRepository articleRepository,
+                              CommentWriteBehind commentWriteBehind,
+                              @Value("${articles.comments.ack-timeout:PT2S}") Duration ackTimeout) {
+        this.articleCommentRepository = articleCommentRepository;
+        this.articleRepository = articleRepository;
+        this.commentWriteBehind = commentWriteBehind;
+        this.ackTimeout = ackTimeout;
+    }
+
+    // Одна страница - один запрос, независимо от числа комментариев у статьи и глубины курсора.
+    // Страницы идут только вперёд, поэтому курсор на предыдущую страницу не выдаётся.
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleCommentRow> getComments(Long articleId, String token, int size) {
+        ArticleCursor cursor = ArticleCursor.decode(token);
+        int pageSize = Math.max(1, Math.min(size, ArticleServiceImpl.MAX_PAGE_SIZE));
+        List<ArticleCommentRow> rows = articleCommentRepository.findPage(articleId,
+                cursor != null ? cursor.getCreatedAt() : null,
+                cursor != null ? cursor.getId() : null,
+                Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, null);
+        }
+        List<ArticleCommentRow> items = rows.subList(0, pageSize);
+        ArticleCommentRow last = items.get(pageSize - 1);
+        String next = new ArticleCursor(last.getCreatedAt(), last.getId(), ArticleCursor.Direction.NEXT).encode();
+        return new CursorPage<>(items, next, null);
+    }
+
+    // Без транзакции: ожидание записи не должно держать соединение из пула.
+    // Счётчик статьи увеличивает писатель после фиксации пачки
+    @Override
+    public CommentSubmission submitComment(Long articleId, Long userId, String body) {
+        CompletableFuture<ArticleComment> written = enqueue(articleId, userId, body);
+        try {
+            written.get(ackTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            return CommentSubmission.SAVED;
+        } catch (TimeoutException e) {
+            return CommentSubmission.PENDING;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CommentSubmission.PENDING;
+        } catch (ExecutionException e) {
+            // Причина уже в журнале писателя, а сам комментарий - среди незаписанных (takeFailedComments)
+            return CommentSubmission.FAILED;
+        }
+    }
+
+    @Override
+    public List<ArticleCommentRow> getPendingComments(Long articleId, AuthenticatedUser user) {
+        if (user == null) {
+            return List.of();
+        }
+        return commentWriteBehind.pending(articleId, user.getId()).stream()
+                .map(comment -> comment.asRow(user.getUsername()))
+                .toList();
+    }
+
+    @Override
+    public List<ArticleCommentRow> takeFailedComments(Long articleId, AuthenticatedUser user) {
+        if (user == null) {
+            return List.of();
+        }
+        return commentWriteBehind.takeFailed(articleId, user.getId()).stream()
+                .map(comment -> comment.asRow(user.getUsername()))
+                .toList();
+    }
+
+    private CompletableFuture<ArticleComment> enqueue(Long articleId, Long userId, String body) {
+        if (!articleRepository.existsById(articleId)) {
+            throw new IllegalArgumentException("Article not found with id " + articleId);
+        }
+        return commentWriteBehind.enqueue(articleId, userId, body);
+    }
+}
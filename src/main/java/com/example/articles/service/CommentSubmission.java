@@ -0,0 +1,11 @@
+package com.example.articles.service;
+
+// Итог отправки комментария из веб-запроса (см. CommentService.submitComment)
+public enum CommentSubmission {
+    // Записан в БД
+    SAVED,
+    // Принят, но подтверждение записи не пришло за ack-timeout: пока виден только автору
+    PENDING,
+    // Не записан (например, статью удалили, пока комментарий ждал); автор увидит его текст на странице статьи
+    FAILED
+}
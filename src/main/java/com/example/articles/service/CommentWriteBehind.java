@@ -0,0 +1,361 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.ArticleComment;
+import com.example.articles.entities.User;
+import com.example.articles.repositories.ArticleCommentRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Отложенная пакетная запись комментариев. Запрос кладёт комментарий в ограниченную очередь, один поток-писатель
+// забирает из неё пачку (до batch-size штук или всё, что пришло за max-delay после первого) и пишет её одной
+// транзакцией через StatelessSession пакетами JDBC. Будущее каждого комментария завершается после фиксации
+// этой транзакции - это и есть подтверждение, что комментарий сохранён.
+// Заполненная очередь - обратное давление: enqueue ждёт место не дольше enqueue-timeout и отказывает.
+// До записи комментарий виден своему автору (см. pending): страница статьи показывает его сразу.
+// Незаписанный комментарий тоже не пропадает молча: автор увидит его текст на странице статьи (см. takeFailed).
+@Component
+public class CommentWriteBehind implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteBehind.class);
+
+    private final SessionFactory sessionFactory;
+    private final ArticleCounters articleCounters;
+    private final BlockingQueue<PendingComment> queue;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration enqueueTimeout;
+
+    // id статьи -> принятые, но ещё не записанные комментарии
+    private final Map<Long, Queue<PendingComment>> pendingByArticle = new ConcurrentHashMap<>();
+    // id статьи -> комментарии, которые не удалось записать. Ограничено по размеру и времени:
+    // автор может так и не вернуться к статье (или её удалили)
+    private final Cache<Long, Queue<PendingComment>> failedByArticle = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final DistributionSummary batches;
+    private final Counter rejected;
+    private final Counter failed;
+
+    private volatile boolean stopped;
+    private volatile Thread writer;
+
+    public CommentWriteBehind(EntityManagerFactory entityManagerFactory,
+                              ArticleCounters articleCounters,
+                              MeterRegistry meterRegistry,
+                              @Value("${articles.comments.queue-capacity:10000}") int queueCapacity,
+                              @Value("${articles.comments.batch-size:200}") int batchSize,
+                              @Value("${articles.comments.max-delay:PT0.01S}") Duration maxDelay,
+                              @Value("${articles.comments.enqueue-timeout:PT0.2S}") Duration enqueueTimeout) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.articleCounters = articleCounters;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.enqueueTimeout = enqueueTimeout;
+        Gauge.builder("articles.comments.queue", queue, BlockingQueue::size)
+                .description("Комментарии, ожидающие записи в БД")
+                .register(meterRegistry);
+        this.batches = DistributionSummary.builder("articles.comments.batch")
+                .description("Комментариев в одной транзакции записи")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("articles.comments.rejected")
+                .description("Комментарии, не принятые из-за заполненной очереди")
+                .register(meterRegistry);
+        this.failed = Counter.builder("articles.comments.failed")
+                .description("Принятые комментарии, которые не удалось записать")
+                .register(meterRegistry);
+    }
+
+    // Принимает комментарий в очередь. Будущее завершается сохранённым комментарием после фиксации
+    // или ошибкой записи (например, статью удалили, пока комментарий ждал)
+    public CompletableFuture<ArticleComment> enqueue(Long articleId, Long userId, String body) {
+        if (stopped) {
+            throw new CommentQueueFullException("Приём комментариев остановлен");
+        }
+        PendingComment comment = new PendingComment(articleId, userId, body,
+                LocalDateTime.now().withSecond(0).withNano(0));
+        // Виден автору ещё до того, как попадёт в очередь: писатель может записать его сразу
+        pendingByArticle.compute(articleId, (id, comments) -> {
+            Queue<PendingComment> result = comments != null ? comments : new ConcurrentLinkedQueue<>();
+            result.add(comment);
+            return result;
+        });
+        boolean accepted;
+        try {
+            accepted = queue.offer(comment, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            removePending(comment);
+            rejected.increment();
+            throw new CommentQueueFullException("Очередь комментариев заполнена (" + queue.size() + "), повторите позже");
+        }
+        return comment.written;
+    }
+
+    // Ещё не записанные комментарии пользователя к статье в порядке отправки
+    public List<PendingComment> pending(Long articleId, Long userId) {
+        Queue<PendingComment> comments = pendingByArticle.get(articleId);
+        if (comments == null) {
+            return List.of();
+        }
+        return comments.stream()
+                .filter(comment -> comment.userId.equals(userId))
+                .toList();
+    }
+
+    // Незаписанные комментарии пользователя к статье (не забирая их)
+    public List<PendingComment> failed(Long articleId, Long userId) {
+        Queue<PendingComment> comments = failedByArticle.getIfPresent(articleId);
+        if (comments == null) {
+            return List.of();
+        }
+        return comments.stream()
+                .filter(comment -> comment.userId.equals(userId))
+                .toList();
+    }
+
+    // Забирает незаписанные комментарии пользователя к статье: о каждом автор узнаёт один раз
+    public List<PendingComment> takeFailed(Long articleId, Long userId) {
+        List<PendingComment> taken = new ArrayList<>();
+        failedByArticle.asMap().computeIfPresent(articleId, (id, comments) -> {
+            for (PendingComment comment : comments) {
+                if (comment.userId.equals(userId)) {
+                    taken.add(comment);
+                }
+            }
+            comments.removeAll(taken);
+            return comments.isEmpty() ? null : comments;
+        });
+        return taken;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (writer == null) {
+            stopped = false;
+            writer = new Thread(this::writeLoop, "comment-writer");
+            writer.start();
+        }
+    }
+
+    // Новые комментарии больше не принимаются, уже принятые дописываются до конца
+    @Override
+    public synchronized void stop() {
+        stopped = true;
+        Thread current = writer;
+        if (current != null) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    // Писатель запускается раньше веб-сервера и останавливается после него:
+    // комментарии последних запросов успевают записаться до закрытия пула соединений
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (!stopped || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || left <= 0) {
+                        break;
+                    }
+                    PendingComment next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                // Поток останавливает только stop() через флаг - прерывание не теряет принятые комментарии
+                Thread.interrupted();
+            } catch (RuntimeException e) {
+                log.error("Ошибка записи комментариев", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingComment> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            // Одна неподходящая строка (статья или пользователь удалены, пока комментарий ждал)
+            // не должна терять всю пачку: повторяем по одному
+            log.warn("Не удалось записать пачку из {} комментариев, пишем по одному", batch.size(), e);
+            for (PendingComment comment : batch) {
+                try {
+                    insert(List.of(comment));
+                } catch (RuntimeException single) {
+                    fail(comment, single);
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingComment> batch) {
+        List<ArticleComment> saved = new ArrayList<>(batch.size());
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (PendingComment comment : batch) {
+                    ArticleComment entity = comment.toEntity();
+                    session.insert(entity);
+                    saved.add(entity);
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+        batches.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingComment comment = batch.get(i);
+            // Счётчик статьи увеличивается до того, как комментарий пропадёт из ожидающих,
+            // чтобы версия страницы (ArticleVersions) не вернулась на мгновение к прежней
+            articleCounters.addComments(comment.articleId, 1);
+            removePending(comment);
+            comment.written.complete(saved.get(i));
+        }
+    }
+
+    private void fail(PendingComment comment, RuntimeException e) {
+        failed.increment();
+        log.warn("Комментарий к статье {} от пользователя {} не записан", comment.articleId, comment.userId, e);
+        // Сначала в незаписанные, потом из ожидающих - версия страницы автора (ArticleVersions) меняется
+        failedByArticle.asMap().compute(comment.articleId, (id, comments) -> {
+            Queue<PendingComment> result = comments != null ? comments : new ConcurrentLinkedQueue<>();
+            result.add(comment);
+            return result;
+        });
+        removePending(comment);
+        comment.written.completeExceptionally(e);
+    }
+
+    private void removePending(PendingComment comment) {
+        pendingByArticle.computeIfPresent(comment.articleId, (id, comments) -> {
+            comments.remove(comment);
+            return comments.isEmpty() ? null : comments;
+        });
+    }
+
+    // Принятый комментарий; для страницы статьи - строка списка с именем автора-зрителя
+    public static final class PendingComment {
+        private final Long articleId;
+        private final Long userId;
+        private final String body;
+        private final LocalDateTime createdAt;
+        private final CompletableFuture<ArticleComment> written = new CompletableFuture<>();
+
+        PendingComment(Long articleId, Long userId, String body, LocalDateTime createdAt) {
+            this.articleId = articleId;
+            this.userId = userId;
+            this.body = body;
+            this.createdAt = createdAt;
+        }
+
+        public ArticleCommentRow asRow(String username) {
+            return new ArticleCommentRow() {
+                @Override
+                public Long getId() {
+                    return null;
+                }
+
+                @Override
+                public String getBody() {
+                    return body;
+                }
+
+                @Override
+                public LocalDateTime getCreatedAt() {
+                    return createdAt;
+                }
+
+                @Override
+                public Long getUserId() {
+                    return userId;
+                }
+
+                @Override
+                public String getUsername() {
+                    return username;
+                }
+            };
+        }
+
+        private ArticleComment toEntity() {
+            Article article = new Article();
+            article.setId(articleId);
+            User user = new User();
+            user.setId(userId);
+            ArticleComment comment = new ArticleComment();
+            comment.setArticle(article);
+            comment.setUser(user);
+            comment.setBody(body);
+            comment.setCreatedAt(createdAt);
+            comment.setUpdatedAt(createdAt);
+            return comment;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.articles.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// CSV по RFC 4180: первая строка - заголовок с именами колонок (title, slug, description, body, author,
+// tags, createdAt; порядок любой, лишние колонки пропускаются). Поля в кавычках могут содержать запятые,
+// переводы строк и удвоенные кавычки. Теги в одной колонке через "|", createdAt - ISO (2024-05-01T10:00)
+class CsvArticleImportReader implements ArticleImportReader {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private boolean headerRead;
+
+    CsvArticleImportReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+
+    @Override
+    public ArticleImportRecord next() throws IOException {
+        if (!headerRead) {
+            List<String> header = readRow();
+            if (header == null) {
+                return null;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            if (!columns.containsKey("title") || !columns.containsKey("author")) {
+                throw new IllegalArgumentException("В заголовке CSV нужны колонки title и author");
+            }
+            headerRead = true;
+        }
+        List<String> row = readRow();
+        while (row != null && row.size() == 1 && row.get(0).isEmpty()) {
+            row = readRow();
+        }
+        if (row == null) {
+            return null;
+        }
+        ArticleImportRecord record = new ArticleImportRecord();
+        record.setTitle(value(row, "title"));
+        record.setSlug(value(row, "slug"));
+        record.setDescription(value(row, "description"));
+        record.setBody(value(row, "body"));
+        record.setAuthor(value(row, "author"));
+        String tags = value(row, "tags");
+        if (tags != null) {
+            record.setTags(new ArrayList<>(Arrays.stream(tags.split("\\|"))
+                    .map(String::trim)
+                    .filter(tag -> !tag.isEmpty())
+                    .toList()));
+        }
+        String createdAt = value(row, "createdAt");
+        if (createdAt != null) {
+            try {
+                record.setCreatedAt(LocalDateTime.parse(createdAt.trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Неверная дата createdAt: " + createdAt, e);
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String value(List<String> row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size() || row.get(index).isEmpty()) {
+            return null;
+        }
+        return row.get(index);
+    }
+
+    // Одна запись CSV (может занимать несколько строк файла) или null в конце входа
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Незакрытая кавычка в CSV");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
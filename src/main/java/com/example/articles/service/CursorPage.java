@@ -0,0 +1,33 @@
+package com.example.articles.service;
+
+import java.util.List;
+
+// Страница результатов с курсорами на соседние страницы (null, если соседней страницы нет)
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final String prevCursor;
+
+    public CursorPage(List<T> items, String nextCursor, String prevCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    public boolean hasPrev() {
+        return prevCursor != null;
+    }
+}
@@ -1,21 +1,29 @@
 package com.example.articles.service;
 
-import com.example.articles.entities.User;
+import com.example.articles.repositories.UserCredentials;
 import com.example.articles.repositories.UserRepository;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    // Ограниченный по размеру и времени жизни кэш данных для входа.
+    // Сбрасывается из UserServiceImpl при изменении и удалении пользователя.
+    private static final int CACHE_MAX_SIZE = 10_000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+
     private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> cache = Caffeine.newBuilder()
+            .maximumSize(CACHE_MAX_SIZE)
+            .expireAfterWrite(CACHE_TTL)
+            .build();
 
     public CustomUserDetailsService(UserRepository userRepository) {
         this.userRepository = userRepository;
@@ -23,24 +31,28 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Предполагается, что метод findByUsername возвращает null, если пользователь не найден
-        User appUser = userRepository.findByUsername(username);
-        if (appUser == null) {
+        AuthenticatedUser cached = cache.get(username, this::load);
+        if (cached == null) {
             throw new UsernameNotFoundException("Пользователь не найден");
         }
+        // Отдаём копию: Spring Security стирает пароль у principal после входа,
+        // а экземпляр из кэша должен остаться пригодным для следующих входов
+        return new AuthenticatedUser(cached.getId(), cached.getUsername(), cached.getPassword(), cached.getRole());
+    }
 
-        // Преобразуем роль из нашей сущности в GrantedAuthority
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        if (appUser.getRole() == User.Roles.ADMIN_ROLE) {
-            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
-        } else {
-            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
         }
+    }
 
-        // Здесь предполагается, что пароли хранятся в БД в виде {noop}123 или в зашифрованном виде,
-        // в зависимости от вашей логики. При необходимости добавьте bean BCryptPasswordEncoder и настройте его.
-        return new org.springframework.security.core.userdetails.User(appUser.getUsername(),
-                appUser.getPassword(),
-                authorities);
+    // Читаем только поля, нужные для входа; null не кэшируется
+    private AuthenticatedUser load(String username) {
+        UserCredentials credentials = userRepository.findCredentialsByUsername(username);
+        if (credentials == null) {
+            return null;
+        }
+        return new AuthenticatedUser(credentials.getId(), credentials.getUsername(),
+                credentials.getPassword(), credentials.getRole());
     }
 }
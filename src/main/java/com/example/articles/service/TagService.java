@@ -1,11 +1,33 @@
 package com.example.articles.service;
 
 import com.example.articles.entities.Tag;
+import com.example.articles.repositories.ReferenceItem;
+import com.example.articles.repositories.TagUsageRow;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface TagService {
-    List<Tag> getAllTags();
+    String SORT_POPULAR = "popular";
+    String SORT_RECENT = "recent";
+    String SORT_NAME = "name";
+
+    // Порядок страницы тегов: известный - как есть, остальные - порядок по умолчанию (popular)
+    static String sortOrDefault(String sort) {
+        return SORT_RECENT.equals(sort) || SORT_NAME.equals(sort) ? sort : SORT_POPULAR;
+    }
+
+    // Справочник тегов (id и название) для форм и отпечатка версий; неизменяемый, кэшируется
+    List<ReferenceItem> getAllTags();
+    // Теги со статистикой из tag_usage: popular - по числу статей, recent - по последнему использованию,
+    // name - по названию (неизвестный порядок - как popular); top - сколько первых строк (null - все)
+    List<TagUsageRow> getTagUsage(String sort, Integer top);
     Tag getTagById(Long id);
+    // id тега по названию (название уникально), мимо кэша справочника
+    Optional<Long> findTagId(String name);
+    // Все теги по списку id одним запросом; IllegalArgumentException, если каких-то нет
+    Set<Tag> getTagsByIds(Collection<Long> ids);
     Tag createTag(Tag tag);
     Tag updateTag(Long id, Tag tag);
     void deleteTag(Long id);
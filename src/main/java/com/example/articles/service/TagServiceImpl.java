@@ -1,22 +1,60 @@
 package com.example.articles.service;
 
+import com.example.articles.config.CacheConfig;
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.Tag;
+import com.example.articles.repositories.ReferenceItem;
 import com.example.articles.repositories.TagRepository;
+import com.example.articles.repositories.TagUsageRepository;
+import com.example.articles.repositories.TagUsageRow;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class TagServiceImpl implements TagService {
     private final TagRepository tagRepository;
+    private final TagUsageRepository tagUsageRepository;
+    private final TagUsageCounters tagUsage;
+    private final ArticleCardCache cardCache;
 
-    public TagServiceImpl(TagRepository tagRepository) {
+    public TagServiceImpl(TagRepository tagRepository,
+                          TagUsageRepository tagUsageRepository,
+                          TagUsageCounters tagUsage,
+                          ArticleCardCache cardCache) {
         this.tagRepository = tagRepository;
+        this.tagUsageRepository = tagUsageRepository;
+        this.tagUsage = tagUsage;
+        this.cardCache = cardCache;
     }
 
+    // Список тегов кэшируется целиком; любая запись в теги сбрасывает кэш. В кэше - неизменяемые
+    // ReferenceItem, а не сущности: общий экземпляр не изменить и не наткнуться на ленивую связь вне сессии
     @Override
-    public List<Tag> getAllTags() {
-        return tagRepository.findAll();
+    @Cacheable(value = CacheConfig.TAGS, key = "'all'")
+    public List<ReferenceItem> getAllTags() {
+        return List.copyOf(tagRepository.findAllItems());
+    }
+
+    // Страница тегов - одно чтение tag_usage по индексу нужного порядка, без обхода article_tag
+    @Override
+    public List<TagUsageRow> getTagUsage(String sort, Integer top) {
+        Limit limit = top != null ? Limit.of(Math.max(1, top)) : Limit.unlimited();
+        return switch (TagService.sortOrDefault(sort)) {
+            case SORT_RECENT -> tagUsageRepository.findRecentlyUsed(limit);
+            case SORT_NAME -> tagUsageRepository.findAllByName(limit);
+            default -> tagUsageRepository.findMostUsed(limit);
+        };
     }
 
     @Override
@@ -26,25 +64,61 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    public Optional<Long> findTagId(String name) {
+        return tagRepository.findIdByName(name);
+    }
+
+    @Override
+    public Set<Tag> getTagsByIds(Collection<Long> ids) {
+        Set<Long> uniqueIds = new HashSet<>(ids);
+        if (uniqueIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<Tag> tags = new HashSet<>(tagRepository.findAllById(uniqueIds));
+        if (tags.size() != uniqueIds.size()) {
+            for (Tag tag : tags) {
+                uniqueIds.remove(tag.getId());
+            }
+            throw new IllegalArgumentException("Теги не найдены: " + uniqueIds);
+        }
+        return tags;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = CacheConfig.TAGS, allEntries = true)
     public Tag createTag(Tag tag) {
         // При создании устанавливаем текущую дату
         tag.setCreatedAt(LocalDateTime.now());
-        return tagRepository.save(tag);
+        // Тег записывается сразу: строка статистики ссылается на него
+        Tag saved = tagRepository.saveAndFlush(tag);
+        tagUsage.register(saved.getId());
+        return saved;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(value = CacheConfig.TAGS, allEntries = true)
     public Tag updateTag(Long id, Tag tag) {
         return tagRepository.findById(id)
                 .map(existingTag -> {
                     existingTag.setName(tag.getName());
                     // Если нужно обновлять и дату создания/обновления, добавьте соответствующие поля
-                    return tagRepository.save(existingTag);
+                    Tag saved = tagRepository.save(existingTag);
+                    // Имя тега выводится в карточках статей, а updatedAt статей при этом не меняется.
+                    // Карточки сверяются и с тегами (см. ArticleCardCache), вытеснение после фиксации освобождает память
+                    AfterCommit.run(cardCache::evictAll);
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Тег не найден"));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(value = CacheConfig.TAGS, allEntries = true)
     public void deleteTag(Long id) {
+        tagUsage.unregister(id);
         tagRepository.deleteById(id);
+        AfterCommit.run(cardCache::evictAll);
     }
 }
@@ -0,0 +1,215 @@
+package com.example.articles.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Статистика тегов в tag_usage (число статей и время последнего добавления к статье).
+// Как и ArticleCounters: изменения связей статья-тег копятся в памяти и сбрасываются пакетом UPDATE,
+// без блокировки строки популярного тега в каждой транзакции со статьёй (и без блокировки ключа карты:
+// запись, вывод и перенос остатков - как в ArticleCounters). Строку тега создаёт register,
+// расхождения (сбой до сброса, связи, записанные в обход сервисов) исправляет сверка с article_tag.
+@Component
+public class TagUsageCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(TagUsageCounters.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final long RETIRED_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Время последнего использования только растёт; NULL в параметре - тег только убирали из статей
+    private static final String FLUSH_SQL =
+            "update tag_usage set article_count = article_count + ?, " +
+            "last_used_at = coalesce(greatest(last_used_at, ?), last_used_at, ?) where tag_id = ?";
+
+    private static final String INSERT_MISSING_SQL =
+            "insert into tag_usage (tag_id, article_count) " +
+            "select t.id, 0 from tag t where not exists (select 1 from tag_usage u where u.tag_id = t.id)";
+
+    // Пересчитываем только разошедшиеся строки
+    private static final String RECONCILE_SQL =
+            "update tag_usage set article_count = " +
+            "(select count(*) from article_tag at where at.tag_id = tag_usage.tag_id) " +
+            "where article_count <> (select count(*) from article_tag at where at.tag_id = tag_usage.tag_id)";
+
+    // Для строк без времени (новые после генерации данных) - дата самой новой статьи с тегом
+    private static final String FILL_LAST_USED_SQL =
+            "update tag_usage set last_used_at = (select max(a.created_at) from article_tag at " +
+            "join article a on a.id = at.article_id where at.tag_id = tag_usage.tag_id) " +
+            "where last_used_at is null and article_count > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // id тега -> ещё не записанные в БД изменения
+    private final Map<Long, Usage> pending = new ConcurrentHashMap<>();
+
+    // Выведенные из pending записи и их id (см. ArticleCounters.retire). Только под flushLock
+    private final Map<Usage, Long> retired = new HashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public TagUsageCounters(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Строка статистики нового тега - в транзакции, создающей тег
+    public void register(Long tagId) {
+        jdbcTemplate.update("insert into tag_usage (tag_id, article_count) values (?, 0)", tagId);
+    }
+
+    public void unregister(Long tagId) {
+        pending.remove(tagId);
+        jdbcTemplate.update("delete from tag_usage where tag_id = ?", tagId);
+    }
+
+    // Вызывается после фиксации транзакции, добавившей теги статьям (каждый тег - одной статье)
+    public void added(Collection<Long> tagIds, LocalDateTime at) {
+        long millis = toMillis(at);
+        for (Long tagId : tagIds) {
+            add(tagId, 1, millis);
+        }
+    }
+
+    // Вызывается после фиксации транзакции, убравшей теги у статей
+    public void removed(Collection<Long> tagIds) {
+        for (Long tagId : tagIds) {
+            add(tagId, -1, Long.MIN_VALUE);
+        }
+    }
+
+    // Без блокировок, как ArticleCounters.add
+    private void add(Long tagId, long articles, long lastUsedMillis) {
+        Usage usage = pending.get(tagId);
+        if (usage == null) {
+            usage = pending.computeIfAbsent(tagId, id -> new Usage());
+        }
+        usage.articles.add(articles);
+        usage.lastUsed.accumulate(lastUsedMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${articles.counters.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        drainRetired();
+        List<Object[]> batch = new ArrayList<>();
+        List<Usage> written = new ArrayList<>();
+        List<Long> writtenLastUsed = new ArrayList<>();
+        for (Map.Entry<Long, Usage> entry : pending.entrySet()) {
+            Usage usage = entry.getValue();
+            long articles = usage.articles.sum();
+            // Время не сбрасывается (сброс аккумулятора теряет параллельные изменения): пишется, если выросло
+            long lastUsed = usage.lastUsed.get();
+            boolean used = lastUsed > usage.flushedLastUsed;
+            if (articles == 0 && !used) {
+                // Тег не менялся с прошлого сброса - убираем запись, чтобы карта не росла
+                retire(entry.getKey(), usage);
+                continue;
+            }
+            Timestamp at = used
+                    ? Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastUsed), ZoneOffset.UTC))
+                    : null;
+            batch.add(new Object[]{articles, at, at, entry.getKey()});
+            written.add(usage);
+            writtenLastUsed.add(lastUsed);
+        }
+        for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, batch.size());
+            List<Object[]> chunk = batch.subList(from, to);
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, chunk);
+            } catch (RuntimeException e) {
+                // Изменения остаются в памяти - попробуем при следующем сбросе
+                log.warn("Не удалось записать статистику тегов ({} шт.), повторим позже", chunk.size(), e);
+                continue;
+            }
+            for (int i = from; i < to; i++) {
+                Usage usage = written.get(i);
+                usage.articles.add(-(Long) batch.get(i)[0]);
+                usage.flushedLastUsed = Math.max(usage.flushedLastUsed, writtenLastUsed.get(i));
+            }
+        }
+    }
+
+    // Как ArticleCounters.retire: запись убирается из карты, остаток переносит следующий сброс
+    private void retire(Long tagId, Usage usage) {
+        pending.remove(tagId, usage);
+        usage.retiredAt = System.nanoTime();
+        retired.put(usage, tagId);
+    }
+
+    // Как ArticleCounters.drainRetired; время последнего использования переносится, если выросло
+    private void drainRetired() {
+        long now = System.nanoTime();
+        retired.entrySet().removeIf(entry -> {
+            Usage usage = entry.getKey();
+            long articles = usage.articles.sum();
+            long lastUsed = usage.lastUsed.get();
+            if (articles == 0 && lastUsed <= usage.flushedLastUsed) {
+                return now - usage.retiredAt > RETIRED_GRACE_NANOS;
+            }
+            usage.articles.add(-articles);
+            usage.flushedLastUsed = lastUsed;
+            add(entry.getValue(), articles, lastUsed);
+            return false;
+        });
+    }
+
+    // Полная сверка с article_tag одним проходом: тегов немного, а строки article_tag читаются по индексу тега.
+    // Вызывается по расписанию и после генерации данных (та пишет связи напрямую)
+    @Scheduled(cron = "${articles.counters.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        flush();
+        int created = jdbcTemplate.update(INSERT_MISSING_SQL);
+        int fixed = jdbcTemplate.update(RECONCILE_SQL);
+        jdbcTemplate.update(FILL_LAST_USED_SQL);
+        if (created > 0 || fixed > 0) {
+            log.info("Сверка статистики тегов: добавлено {}, исправлено {}", created, fixed);
+        }
+        return fixed;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static long toMillis(LocalDateTime at) {
+        return at.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static final class Usage {
+        final LongAdder articles = new LongAdder();
+        // Самое позднее время добавления, мс UTC (MIN_VALUE - не было), и уже записанное в БД
+        final LongAccumulator lastUsed = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        long flushedLastUsed = Long.MIN_VALUE;
+        // Время вывода из карты (System.nanoTime), только под flushLock
+        long retiredAt;
+    }
+}
@@ -1,28 +1,32 @@
 package com.example.articles.service;
 
+import com.example.articles.config.MetricsConfig;
 import com.example.articles.entities.User;
-import com.example.articles.repositories.ArticleCommentRepository;
-import com.example.articles.repositories.ArticleRepository;
 import com.example.articles.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserServiceImpl implements UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
+
     private final UserRepository userRepository;
-    private final ArticleRepository articleRepository; // Репозиторий для статей
-    private final ArticleCommentRepository articleCommentRepository; // Репозиторий для комментариев
+    private final CustomUserDetailsService userDetailsService; // Кэш данных для входа
+    private final ChunkedDeleter chunkedDeleter; // Пакетное удаление связанных данных
 
     public UserServiceImpl(UserRepository userRepository,
-                           ArticleRepository articleRepository,
-                           ArticleCommentRepository articleCommentRepository) {
+                           CustomUserDetailsService userDetailsService,
+                           ChunkedDeleter chunkedDeleter) {
         this.userRepository = userRepository;
-        this.articleRepository = articleRepository;
-        this.articleCommentRepository = articleCommentRepository;
+        this.userDetailsService = userDetailsService;
+        this.chunkedDeleter = chunkedDeleter;
     }
 
     private BCryptPasswordEncoder encoder() {
@@ -54,6 +58,7 @@ public class UserServiceImpl implements UserService {
     public User updateUser(Long id, User updatedUser) {
         return userRepository.findById(id)
                 .map(user -> {
+                    String oldUsername = user.getUsername();
                     user.setUsername(updatedUser.getUsername());
                     user.setEmail(updatedUser.getEmail());
                     user.setBio(updatedUser.getBio());
@@ -66,16 +71,29 @@ public class UserServiceImpl implements UserService {
                         user.setPassword(encodedPassword);  // Устанавливаем зашифрованный пароль
                     }
 
-                    return userRepository.save(user);  // Сохраняем обновленного пользователя
+                    User saved = userRepository.save(user);  // Сохраняем обновленного пользователя
+                    // Сбрасываем кэш данных для входа и для старого, и для нового имени
+                    AfterCommit.run(() -> {
+                        userDetailsService.evict(oldUsername);
+                        userDetailsService.evict(saved.getUsername());
+                    });
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
     }
 
-    @Transactional
+    // Без общей транзакции: комментарии, избранное и статьи пользователя удаляются порциями,
+    // каждая порция фиксируется отдельно. Если удаление прервётся, повторный вызов продолжит его.
     @Override
     public void deleteUser(Long id) {
-        articleCommentRepository.deleteByUserId(id);
-        articleRepository.deleteByOwnerId(id);
-        userRepository.deleteById(id);
+        String username = userRepository.findById(id).map(User::getUsername).orElse(null);
+        long comments = chunkedDeleter.deleteCommentsByUser(id);
+        long favorites = chunkedDeleter.deleteFavoritesByUser(id);
+        long articles = chunkedDeleter.deleteArticlesByOwner(id);
+        userRepository.deleteAllByIdInBatch(List.of(id));
+        if (username != null) {
+            userDetailsService.evict(username);
+        }
+        log.info("Пользователь {} удалён: комментариев {}, избранного {}, статей {}", id, comments, favorites, articles);
     }
 }
@@ -0,0 +1,132 @@
+-- Начальная схема (раньше её при каждом старте пересоздавал Hibernate через ddl-auto=create-drop).
+-- Синтаксис общий для MariaDB и H2 в режиме MariaDB (тесты, профиль perf).
+-- Порядок: таблицы, индексы под запросы репозиториев, затем внешние ключи - чтобы ключи использовали
+-- эти индексы, а не создавали свои (InnoDB и H2 заводят индекс для ключа, только если подходящего нет).
+-- Индексы проверяются планами EXPLAIN в QueryPlanTests
+
+-- id из последовательностей блоками по 50 - как allocationSize сущностей (пакетные INSERT)
+create sequence article_seq start with 1 increment by 50 nocache;
+create sequence article_comment_seq start with 1 increment by 50 nocache;
+create sequence article_favorite_seq start with 1 increment by 50 nocache;
+create sequence author_seq start with 1 increment by 50 nocache;
+create sequence tag_seq start with 1 increment by 50 nocache;
+create sequence user_seq start with 1 increment by 50 nocache;
+
+create table user (
+    id         bigint       not null,
+    username   varchar(255),
+    email      varchar(255),
+    password   varchar(255),
+    role       tinyint check (role between 0 and 1),
+    bio        text,
+    image_url  varchar(255),
+    created_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table author (
+    id         bigint       not null,
+    name       varchar(100) not null,
+    bio        varchar(255),
+    created_at datetime(6)  not null,
+    updated_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table tag (
+    id         bigint not null,
+    name       varchar(255),
+    created_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table article (
+    id             bigint not null,
+    slug           varchar(255),
+    title          varchar(255),
+    description    text,
+    body           text,
+    created_at     datetime(6),
+    updated_at     datetime(6),
+    author_id      bigint not null,
+    owner_id       bigint,
+    comment_count  bigint not null,
+    favorite_count bigint not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table article_tag (
+    article_id bigint not null,
+    tag_id     bigint not null,
+    primary key (article_id, tag_id)
+) engine = InnoDB;
+
+create table article_comment (
+    id         bigint not null,
+    article_id bigint not null,
+    user_id    bigint not null,
+    body       text,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table article_favorite (
+    id         bigint not null,
+    article_id bigint not null,
+    user_id    bigint not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table tag_usage (
+    tag_id        bigint not null,
+    article_count bigint not null,
+    last_used_at  datetime(6),
+    primary key (tag_id)
+) engine = InnoDB;
+
+-- Вторичный индекс InnoDB содержит и первичный ключ, поэтому (x, y) покрывает и select id ... where x = ?
+
+-- Вход и загрузка пользователя по имени (UserRepository.findByUsername / findCredentialsByUsername)
+create unique index ux_user_username on user (username);
+
+-- Импорт статей находит авторов и теги по имени, а недостающие вставляет и при нарушении уникальности
+-- читает строку, созданную параллельным импортом (см. ArticleImporter)
+create unique index ux_author_name on author (name);
+create unique index ux_tag_name on tag (name);
+
+-- Публичные ссылки /articles/s/{slug}
+create unique index ux_article_slug on article (slug);
+-- Лента: keyset по (created_at desc, id desc) - обратный проход индекса, без сортировки
+create index idx_article_created on article (created_at, id);
+-- Статьи автора в том же порядке (findOlderByAuthor / findNewerByAuthor)
+create index idx_article_author_created on article (author_id, created_at, id);
+-- Статьи владельца для удаления пользователя (findIdsByOwner) - покрывающий
+create index idx_article_owner on article (owner_id, id);
+
+-- Статьи тега (findOlderByTag, сверка tag_usage); связи статей читает первичный ключ (article_id, tag_id)
+create index idx_article_tag_tag on article_tag (tag_id, article_id);
+
+-- Страница комментариев статьи в порядке создания (ArticleCommentRepository.findPage)
+create index idx_article_comment_article_created on article_comment (article_id, created_at, id);
+-- Комментарии и избранное пользователя порциями (findChunkByUser) - покрывающие (id, article_id)
+create index idx_article_comment_user on article_comment (user_id, article_id);
+create index idx_article_favorite_user on article_favorite (user_id, article_id);
+-- Избранное статей при их удалении (findIdsByArticleIds)
+create index idx_article_favorite_article on article_favorite (article_id);
+
+-- Страница тегов: самые популярные и недавно использованные (TagUsageRepository)
+create index idx_tag_usage_count on tag_usage (article_count, tag_id);
+create index idx_tag_usage_last_used on tag_usage (last_used_at, tag_id);
+
+alter table article add constraint fk_article_author foreign key (author_id) references author (id);
+alter table article add constraint fk_article_owner foreign key (owner_id) references user (id);
+alter table article_tag add constraint fk_article_tag_article foreign key (article_id) references article (id);
+alter table article_tag add constraint fk_article_tag_tag foreign key (tag_id) references tag (id);
+alter table article_comment add constraint fk_article_comment_article foreign key (article_id) references article (id);
+alter table article_comment add constraint fk_article_comment_user foreign key (user_id) references user (id);
+alter table article_favorite add constraint fk_article_favorite_article foreign key (article_id) references article (id);
+alter table article_favorite add constraint fk_article_favorite_user foreign key (user_id) references user (id);
+alter table tag_usage add constraint fk_tag_usage_tag foreign key (tag_id) references tag (id);
@@ -0,0 +1,181 @@
+package com.example.articles;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Холодный старт, как у нового экземпляра при масштабировании: приложение запускается в отдельной JVM
+// (профиль fast-startup, встроенная H2, без генерации данных), измеряются время старта по журналу Spring Boot
+// и время от запуска процесса до первого ответа ленты статей. Запускается сборкой mvn -P fast-startup verify
+// на собранном jar с AOT и архивом CDS (свойства startup.jar и startup.jvm-args, см. pom.xml), в обычном mvn test
+// исключён; без startup.jar (mvn test -Dtest=StartupTimeTests) приложение берётся из classpath тестов.
+// Время пишется в журнал; превышение бюджета профиля (startup.max-*) роняет тест
+class StartupTimeTests {
+
+    private static final Pattern STARTED =
+            Pattern.compile("Started \\w+ in [\\d.]+ seconds \\(process running for ([\\d.]+)\\)");
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTests.class);
+
+    // Бюджет профиля fast-startup (fast-startup.max-* в pom.xml): ловит регрессии вроде генерации данных
+    // или тяжёлой инициализации снова в старте, а сравнивать сборки лучше по значениям из журнала
+    private static final Duration MAX_STARTUP =
+            Duration.parse(System.getProperty("startup.max-startup", "PT40S"));
+    private static final Duration MAX_FIRST_REQUEST =
+            Duration.parse(System.getProperty("startup.max-time-to-first-request", "PT45S"));
+
+    @Test
+    void startsAndServesFirstRequestWithinBudget() throws Exception {
+        int port = freePort();
+        List<String> command = command(port);
+        Output output = new Output();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            CompletableFuture<Duration> started = output.follow(process);
+            Duration firstRequest = awaitFirstResponse(process, port, start, output);
+            Duration startup = started.get(10, TimeUnit.SECONDS);
+
+            String timings = String.format("старт %.2f с, первый ответ %.2f с (%s)",
+                    startup.toMillis() / 1000.0, firstRequest.toMillis() / 1000.0, mode());
+            log.info("Холодный старт: {}", timings);
+            assertThat(startup).as("Старт дольше %s: %s", MAX_STARTUP, timings).isLessThanOrEqualTo(MAX_STARTUP);
+            assertThat(firstRequest).as("Первый ответ дольше %s: %s", MAX_FIRST_REQUEST, timings)
+                    .isLessThanOrEqualTo(MAX_FIRST_REQUEST);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    // Опрос ленты, пока приложение не ответит 200; время - от запуска процесса
+    private static Duration awaitFirstResponse(Process process, int port, long start, Output output)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/articles")).build();
+        long deadline = start + MAX_FIRST_REQUEST.plusSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new AssertionError("Приложение завершилось с кодом " + process.exitValue() + ":\n" + output);
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - start);
+                }
+                throw new AssertionError("Лента ответила " + response.statusCode() + ":\n" + output);
+            } catch (IOException e) {
+                // Порт ещё не слушается
+                Thread.sleep(10);
+            }
+        }
+        throw new AssertionError("Приложение не ответило за " + MAX_FIRST_REQUEST.plusSeconds(30) + ":\n" + output);
+    }
+
+    private static List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("startup.jvm-args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        String jar = System.getProperty("startup.jar");
+        if (jar != null) {
+            command.add("-jar");
+            command.add(jar);
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ArticlesApplication.class.getName());
+        }
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.profiles.active=fast-startup",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--articles.seed.enabled=false"));
+        return command;
+    }
+
+    // Архив CDS указывается относительно каталога распакованного jar
+    private static File workingDirectory() {
+        String jar = System.getProperty("startup.jar");
+        return jar != null ? Path.of(jar).toAbsolutePath().getParent().toFile() : null;
+    }
+
+    private static String mode() {
+        String jar = System.getProperty("startup.jar");
+        return jar != null ? "jar " + System.getProperty("startup.jvm-args", "") : "classpath тестов";
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Вывод приложения: читается в фоне (иначе процесс встанет на заполненном канале) и прикладывается к ошибке
+    private static final class Output {
+
+        private final ConcurrentLinkedQueue<String> lines = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture<Duration> follow(Process process) {
+            CompletableFuture<Duration> started = new CompletableFuture<>();
+            Thread reader = new Thread(() -> {
+                try (BufferedReader in = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        lines.add(line);
+                        Matcher matcher = STARTED.matcher(line);
+                        if (matcher.find()) {
+                            started.complete(Duration.ofMillis(Math.round(Double.parseDouble(matcher.group(1)) * 1000)));
+                        }
+                    }
+                } catch (IOException e) {
+                    started.completeExceptionally(e);
+                }
+                started.completeExceptionally(new AssertionError("В журнале нет строки Started:\n" + this));
+            }, "startup-output");
+            reader.setDaemon(true);
+            reader.start();
+            return started;
+        }
+
+        @Override
+        public String toString() {
+            return String.join("\n", lines);
+        }
+    }
+}
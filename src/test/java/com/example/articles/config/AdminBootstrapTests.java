@@ -0,0 +1,35 @@
+package com.example.articles.config;
+
+import com.example.articles.entities.User;
+import com.example.articles.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Новая рабочая БД без генерации данных: администратор всё равно есть, с паролем из настроек
+@SpringBootTest(properties = {"articles.seed.enabled=false", "articles.admin.password=s3cret"})
+class AdminBootstrapTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void adminExistsWithoutSeeding() {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from article", Long.class)).isZero();
+
+        User admin = userRepository.findByUsername("admin");
+        assertThat(admin).isNotNull();
+        assertThat(admin.getRole()).isEqualTo(User.Roles.ADMIN_ROLE);
+        assertThat(passwordEncoder.matches("s3cret", admin.getPassword())).isTrue();
+    }
+}
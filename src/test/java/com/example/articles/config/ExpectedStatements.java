@@ -0,0 +1,18 @@
+package com.example.articles.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Точное число SQL-запросов, которое должно выполнить тело теста (подготовка в @BeforeEach не считается).
+// Лишний запрос на странице - упавший тест со списком выполненных запросов
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementCountExtension.class)
+public @interface ExpectedStatements {
+
+    int value();
+}
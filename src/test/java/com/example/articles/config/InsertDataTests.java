@@ -0,0 +1,40 @@
+package com.example.articles.config;
+
+import com.example.articles.service.ArticleCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Несколько порций, генерируемых параллельно: объёмы совпадают с заданными, счётчики - с таблицами
+@SpringBootTest(properties = {
+        "articles.seed.users=300",
+        "articles.seed.articles=1000",
+        "articles.seed.batch-size=100",
+        "articles.seed.threads=4"
+})
+class InsertDataTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArticleCounters articleCounters;
+
+    @Test
+    void generatesConfiguredVolumesInParallelChunks() {
+        assertThat(count("select count(*) from article")).isEqualTo(1000);
+        // 300 сгенерированных пользователей + admin, имена уникальны
+        assertThat(count("select count(distinct username) from \"user\"")).isEqualTo(301);
+        assertThat(count("select count(distinct article_id) from article_tag")).isEqualTo(1000);
+        assertThat(count("select count(*) from article_comment"))
+                .isEqualTo(count("select sum(comment_count) from article"));
+        assertThat(articleCounters.reconcile()).isZero();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.articles.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcConcurrencyLimiterTests {
+
+    private final JdbcConcurrencyLimiter.LimitedDataSource dataSource = new JdbcConcurrencyLimiter.LimitedDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1", "sa", ""),
+            2, Duration.ofMillis(100));
+
+    @Test
+    void connectionOverLimitWaitsAndTimesOut() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(dataSource.getAvailable()).isZero();
+
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(dataSource.getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void closedConnectionReleasesPermitOnce() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.getAvailable()).isEqualTo(2);
+        try (Connection next = dataSource.getConnection()) {
+            assertThat(next.isValid(1)).isTrue();
+            assertThat(dataSource.getAvailable()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void waitingThreadGetsReleasedPermit() throws Exception {
+        JdbcConcurrencyLimiter.LimitedDataSource single = new JdbcConcurrencyLimiter.LimitedDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1", "sa", ""),
+                1, Duration.ofSeconds(5));
+        Connection held = single.getConnection();
+        Thread waiter = new Thread(() -> {
+            try (Connection ignored = single.getConnection()) {
+                // соединение получено после освобождения
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waiter.start();
+        while (single.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+
+        held.close();
+        waiter.join(5000);
+
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(single.getAvailable()).isEqualTo(1);
+    }
+}
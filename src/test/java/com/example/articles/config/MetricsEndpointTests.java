@@ -0,0 +1,76 @@
+package com.example.articles.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Выгрузка для Prometheus: таймеры контроллеров и сервисов, пул соединений и Hibernate - без обращений к БД
+// (в тестах экспорт метрик по умолчанию выключен - реестр Prometheus включается явно).
+// Сборщик входит по HTTP Basic, пользователи приложения выгрузку не получают
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void scrapeExposesTimersPoolAndHibernateStatistics() throws Exception {
+        mockMvc.perform(get("/articles")).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/actuator/prometheus").with(scraper()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body)
+                .contains("articles_controller_seconds_count{class=\"com.example.articles.controllers.ArticleController\"")
+                .contains("method=\"listArticles\"")
+                .contains("articles_service_seconds_count{class=\"com.example.articles.service.ArticleServiceImpl\"")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .contains("hibernate_collections_fetches_total")
+                .contains("hibernate_entities_loads_total");
+    }
+
+    @Test
+    void scrapeDoesNotTouchDatabase() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        mockMvc.perform(get("/actuator/prometheus").with(scraper())).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get("/actuator/prometheus").with(scraper())).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getConnectCount()).isZero();
+    }
+
+    @Test
+    void scrapeRequiresScraperCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(user("reader").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    // Учётная запись сборщика из src/test/resources/config/application.properties
+    private static RequestPostProcessor scraper() {
+        return httpBasic("prometheus", "scrape-secret");
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.articles.config;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+// Считает SQL-запросы тела теста через SqlStatementCounter из контекста Spring и сверяет с @ExpectedStatements.
+// MockMvc выполняет запрос в потоке теста, поэтому учитываются и запросы из контроллера, и из шаблона
+public class SqlStatementCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SqlStatementCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementCounter counter = SpringExtension.getApplicationContext(context).getBean(SqlStatementCounter.class);
+        context.getStore(NAMESPACE).put(context.getUniqueId(), counter.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Recording recording =
+                context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementCounter.Recording.class);
+        recording.close();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        int expected = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), ExpectedStatements.class)
+                .orElseThrow()
+                .value();
+        if (recording.getCount() != expected) {
+            throw new AssertionFailedError("Ожидалось SQL-запросов: " + expected + ", выполнено: "
+                    + recording.getCount() + "\n" + String.join("\n", recording.getStatements()),
+                    expected, recording.getCount());
+        }
+    }
+}
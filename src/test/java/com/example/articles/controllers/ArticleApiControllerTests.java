@@ -0,0 +1,130 @@
+package com.example.articles.controllers;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.Tag;
+import com.example.articles.entities.User;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticleApiControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cursorsWalkAllArticles() throws Exception {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            String json = mockMvc.perform(get("/api/articles").param("size", "7")
+                            .param("cursor", cursor != null ? cursor : ""))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/json"))
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            JsonNode page = objectMapper.readTree(json);
+            page.get("items").forEach(item -> assertThat(seen.add(item.get("id").asLong())).isTrue());
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(articleCount());
+    }
+
+    @Test
+    void articleIsReturnedWithBodyAndTags() throws Exception {
+        Article article = articleService.findAll().get(0);
+        Tag tag = article.getTags().iterator().next();
+
+        mockMvc.perform(get("/api/articles/" + article.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(article.getTitle()))
+                .andExpect(jsonPath("$.body").value(article.getBody()))
+                .andExpect(jsonPath("$.authorId").value(article.getAuthor().getId()))
+                .andExpect(jsonPath("$.tags[?(@.id == " + tag.getId() + ")].name").value(tag.getName()));
+        mockMvc.perform(get("/api/articles/-1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/articles").param("cursor", "не-курсор")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsEveryArticleOncePerLine() throws Exception {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", "", User.Roles.ADMIN_ROLE);
+        MvcResult started = mockMvc.perform(get("/api/articles/export").with(user(admin)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ArticleApiController.NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Long> ids = new ArrayList<>();
+        long tagLinks = 0;
+        for (String line : body.split("\n")) {
+            JsonNode article = objectMapper.readTree(line);
+            ids.add(article.get("id").asLong());
+            tagLinks += article.get("tags").size();
+        }
+        assertThat(ids).hasSize(articleCount()).isSortedAccordingTo(Comparator.naturalOrder()).doesNotHaveDuplicates();
+        assertThat(tagLinks).isEqualTo(jdbcTemplate.queryForObject("select count(*) from article_tag", Long.class));
+    }
+
+    @Test
+    void exportIsForAdminsOnly() throws Exception {
+        AuthenticatedUser regular = new AuthenticatedUser(2L, "user", "", User.Roles.USER_ROLE);
+        mockMvc.perform(get("/api/articles/export").with(user(regular))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/articles/export")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/articles/export").with(httpBasic("admin", "неверный")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // Скрипты ходят в API по HTTP Basic, без формы входа и без сессии
+    @Test
+    void exportAcceptsBasicCredentialsWithoutSession() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/articles/export").with(httpBasic("admin", "123")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertThat(started.getRequest().getSession(false)).isNull();
+        assertThat(started.getResponse().getCookie("JSESSIONID")).isNull();
+    }
+
+    private int articleCount() {
+        return jdbcTemplate.queryForObject("select count(*) from article", Integer.class);
+    }
+}
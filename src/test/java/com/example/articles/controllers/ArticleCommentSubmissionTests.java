@@ -0,0 +1,123 @@
+package com.example.articles.controllers;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.User;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.AuthenticatedUser;
+import com.example.articles.service.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Комментарий ещё в очереди записи (писатель ждёт пачку 500 мс, запрос не ждёт подтверждения),
+// но автор уже видит его на странице статьи - в том числе при условном GET со старой версией.
+// Комментарий, который записать не удалось, автор тоже видит - с пометкой, что он не сохранён
+@SpringBootTest(properties = {"articles.comments.ack-timeout=PT0S", "articles.comments.max-delay=PT0.5S"})
+@AutoConfigureMockMvc
+class ArticleCommentSubmissionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    private AuthenticatedUser owner;
+    private AuthenticatedUser other;
+    private Article scratch;
+
+    @BeforeEach
+    void setUp() {
+        Article article = articleService.findAll().get(0);
+        owner = new AuthenticatedUser(article.getOwner().getId(), article.getOwner().getUsername(),
+                "", User.Roles.USER_ROLE);
+        other = new AuthenticatedUser(-1L, "other", "", User.Roles.USER_ROLE);
+        Article draft = new Article();
+        draft.setTitle("Обсуждаемая");
+        draft.setDescription("Описание");
+        draft.setBody("Текст");
+        scratch = articleService.createArticle(draft, article.getAuthor().getId(),
+                List.of(article.getTags().iterator().next().getId()), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        awaitWritten();
+        articleService.deleteArticle(scratch.getId());
+    }
+
+    @Test
+    void authorSeesOwnCommentBeforeItIsWritten() throws Exception {
+        String url = "/articles/" + scratch.getId();
+        String etag = mockMvc.perform(get(url).with(user(owner)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post(url + "/comments").with(user(owner)).with(csrf()).param("body", "Мой комментарий"))
+                .andExpect(redirectedUrl(url + "?comment=pending"));
+
+        String own = mockMvc.perform(get(url).with(user(owner)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(own).contains("Мой комментарий").contains("публикуется");
+        assertThat(mockMvc.perform(get(url + "?comment=pending").with(user(owner)))
+                .andReturn().getResponse().getContentAsString())
+                .contains("Комментарий принят, но ещё не сохранён");
+        // Остальным ещё не записанный комментарий не показывается
+        assertThat(mockMvc.perform(get(url).with(user(other))).andReturn().getResponse().getContentAsString())
+                .doesNotContain("Мой комментарий");
+
+        awaitWritten();
+        String written = mockMvc.perform(get(url).with(user(other)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(written).contains("Мой комментарий").doesNotContain("публикуется");
+    }
+
+    @Test
+    void unwrittenCommentIsShownToItsAuthorOnce() throws Exception {
+        String url = "/articles/" + scratch.getId();
+        // Пользователя нет в БД - запись упрётся во внешний ключ
+        mockMvc.perform(post(url + "/comments").with(user(other)).with(csrf()).param("body", "Потерянный"))
+                .andExpect(redirectedUrl(url + "?comment=pending"));
+        String etag = mockMvc.perform(get(url).with(user(other)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        awaitWritten(other);
+        String failed = mockMvc.perform(get(url).with(user(other)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(failed).contains("Потерянный").contains("не сохранён");
+        assertThat(mockMvc.perform(get(url).with(user(other))).andReturn().getResponse().getContentAsString())
+                .doesNotContain("Потерянный");
+    }
+
+    private void awaitWritten() throws InterruptedException {
+        awaitWritten(owner);
+    }
+
+    private void awaitWritten(AuthenticatedUser author) throws InterruptedException {
+        for (int i = 0; i < 100 && !commentService.getPendingComments(scratch.getId(), author).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+    }
+}
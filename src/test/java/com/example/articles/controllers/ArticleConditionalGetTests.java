@@ -0,0 +1,181 @@
+package com.example.articles.controllers;
+
+import com.example.articles.service.CommentSubmission;
+import com.example.articles.config.SqlStatementCounter;
+import com.example.articles.entities.Article;
+import com.example.articles.entities.User;
+import com.example.articles.service.ArticleCounters;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.AuthenticatedUser;
+import com.example.articles.service.AuthorService;
+import com.example.articles.service.CommentService;
+import com.example.articles.service.TagService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Условные GET страниц статей: повторный запрос с If-None-Match получает 304 за один SQL-запрос,
+// а любое изменение, видимое на странице, меняет версию
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticleConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleCounters articleCounters;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    private Article article;
+
+    @BeforeEach
+    void setUp() {
+        tagService.getAllTags();
+        authorService.getAllAuthors();
+        article = articleService.findAll().get(0);
+    }
+
+    @Test
+    void unchangedDetailsPageIsNotModifiedAfterOneQuery() throws Exception {
+        String etag = etagOf(get("/articles/" + article.getId()));
+
+        try (SqlStatementCounter.Recording recording = statementCounter.start()) {
+            mockMvc.perform(get("/articles/" + article.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+            // Только статья - без тегов, комментариев и шаблона
+            assertThat(recording.getCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void newCommentChangesDetailsVersionBeforeCountersAreFlushed() throws Exception {
+        Long userId = article.getOwner().getId();
+        String before = etagOf(get("/articles/" + article.getId()));
+
+        assertThat(commentService.submitComment(article.getId(), userId, "Новый комментарий"))
+                .isEqualTo(CommentSubmission.SAVED);
+        String pending = etagOf(get("/articles/" + article.getId()));
+        articleCounters.flush();
+        String flushed = etagOf(get("/articles/" + article.getId()));
+
+        assertThat(pending).isNotEqualTo(before);
+        assertThat(flushed).isNotEqualTo(before);
+    }
+
+    @Test
+    void flushedCountersReplaceStalePages() throws Exception {
+        String details = "/articles/" + article.getId();
+        String list = "/articles/by-author/" + article.getAuthor().getId() + "?size=100";
+        long favorites = articleService.getArticleById(article.getId()).orElseThrow().getFavoriteCount();
+
+        articleCounters.addFavorites(article.getId(), 1);
+        try {
+            String detailsEtag = etagOf(get(details));
+            String listEtag = etagOf(get(list));
+            articleCounters.flush();
+
+            // Страница до сброса показывала число из БД - после сброса она устарела и отдаётся заново
+            assertThat(mockMvc.perform(get(details).header(HttpHeaders.IF_NONE_MATCH, detailsEtag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString())
+                    .contains("В избранном: " + (favorites + 1));
+            assertThat(mockMvc.perform(get(list).header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString())
+                    .contains("В избранном: " + (favorites + 1));
+        } finally {
+            articleCounters.addFavorites(article.getId(), -1);
+            articleCounters.flush();
+        }
+    }
+
+    @Test
+    void unchangedListPageIsNotModifiedAfterOneQuery() throws Exception {
+        String etag = etagOf(get("/articles?size=5"));
+
+        try (SqlStatementCounter.Recording recording = statementCounter.start()) {
+            mockMvc.perform(get("/articles?size=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            // Только карточки - без тегов и шаблона
+            assertThat(recording.getCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void articleUpdateChangesListAndDetailsVersions() throws Exception {
+        Article created = articleService.createArticle(draft("Версия"), article.getAuthor().getId(),
+                List.of(article.getTags().iterator().next().getId()), article.getOwner().getId());
+        try {
+            String list = etagOf(get("/articles?size=5"));
+            String byAuthor = etagOf(get("/articles/by-author/" + article.getAuthor().getId()));
+            String details = etagOf(get("/articles/" + created.getId()));
+
+            articleService.updateArticle(created.getId(), draft("Новая версия"), article.getAuthor().getId(),
+                    List.of(article.getTags().iterator().next().getId()));
+
+            assertThat(etagOf(get("/articles?size=5"))).isNotEqualTo(list);
+            assertThat(etagOf(get("/articles/by-author/" + article.getAuthor().getId()))).isNotEqualTo(byAuthor);
+            assertThat(etagOf(get("/articles/" + created.getId()))).isNotEqualTo(details);
+        } finally {
+            articleService.deleteArticle(created.getId());
+        }
+    }
+
+    @Test
+    void signedInUserGetsOwnPrivateVersion() throws Exception {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", "", User.Roles.ADMIN_ROLE);
+        String guest = mockMvc.perform(get("/articles/by-tag/" + article.getTags().iterator().next().getId()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String signedIn = mockMvc.perform(get("/articles/by-tag/" + article.getTags().iterator().next().getId())
+                        .with(user(admin)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(guest).startsWith("W/\"");
+        assertThat(signedIn).isNotEqualTo(guest);
+    }
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static Article draft(String title) {
+        Article draft = new Article();
+        draft.setTitle(title);
+        draft.setDescription("Описание");
+        draft.setBody("Текст");
+        return draft;
+    }
+}
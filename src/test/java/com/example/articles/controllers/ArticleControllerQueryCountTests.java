@@ -0,0 +1,194 @@
+package com.example.articles.controllers;
+
+import com.example.articles.config.ExpectedStatements;
+import com.example.articles.entities.Article;
+import com.example.articles.entities.User;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.AuthenticatedUser;
+import com.example.articles.service.AuthorService;
+import com.example.articles.service.TagService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Каждый обработчик ArticleController стоит фиксированное число SQL-запросов независимо от числа карточек,
+// тегов и комментариев. Справочники тегов и авторов кэшируются - считаем в установившемся режиме
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticleControllerQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    private Article article;
+    private AuthenticatedUser owner;
+    private Long authorId;
+    private Long tagId;
+    private Article scratch;
+
+    @BeforeEach
+    void setUp() {
+        tagService.getAllTags();
+        authorService.getAllAuthors();
+        article = articleService.findAll().get(0);
+        owner = new AuthenticatedUser(article.getOwner().getId(), article.getOwner().getUsername(),
+                "", User.Roles.USER_ROLE);
+        authorId = article.getAuthor().getId();
+        tagId = article.getTags().iterator().next().getId();
+        // slug -> id в кэше, как для уже открывавшейся публичной ссылки
+        articleService.getArticleBySlug(article.getSlug());
+        // Отдельная статья для изменения и удаления, чтобы не трогать общие данные
+        Article draft = new Article();
+        draft.setTitle("Черновик");
+        draft.setDescription("Описание");
+        draft.setBody("Текст");
+        scratch = articleService.createArticle(draft, authorId, List.of(tagId), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        articleService.getArticleById(scratch.getId()).ifPresent(a -> articleService.deleteArticle(a.getId()));
+    }
+
+    // Страница карточек (1) + их теги (1)
+    @Test
+    @ExpectedStatements(2)
+    void listPage() throws Exception {
+        mockMvc.perform(get("/articles?size=20")).andExpect(status().isOk());
+    }
+
+    // Пользователь берётся из сессии, а не из БД
+    @Test
+    @ExpectedStatements(2)
+    void listPageForSignedInUser() throws Exception {
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin", "", User.Roles.ADMIN_ROLE);
+        mockMvc.perform(get("/articles?size=20").with(user(admin))).andExpect(status().isOk());
+    }
+
+    @Test
+    @ExpectedStatements(2)
+    void byAuthorPage() throws Exception {
+        mockMvc.perform(get("/articles/by-author/" + authorId)).andExpect(status().isOk());
+    }
+
+    @Test
+    @ExpectedStatements(2)
+    void byTagPage() throws Exception {
+        mockMvc.perform(get("/articles/by-tag/" + tagId)).andExpect(status().isOk());
+    }
+
+    // Карточки по id из индекса (1) + их теги (1); справочники для формы поиска берутся из кэша
+    @Test
+    @ExpectedStatements(2)
+    void searchPage() throws Exception {
+        String word = Arrays.stream(article.getTitle().split("[^\\p{L}\\p{N}]+"))
+                .max(Comparator.comparingInt(String::length))
+                .orElseThrow();
+        mockMvc.perform(get("/articles/search").param("query", word)).andExpect(status().isOk());
+    }
+
+    // Статья с автором и владельцем (1) + её теги (1) + первая страница комментариев с пользователями (1)
+    @Test
+    @ExpectedStatements(3)
+    void detailsPage() throws Exception {
+        mockMvc.perform(get("/articles/" + article.getId())).andExpect(status().isOk());
+    }
+
+    // slug уже в кэше - те же запросы, что и по id
+    @Test
+    @ExpectedStatements(3)
+    void detailsPageBySlug() throws Exception {
+        mockMvc.perform(get("/articles/s/" + article.getSlug())).andExpect(status().isOk());
+    }
+
+    @Test
+    @ExpectedStatements(1)
+    void moreCommentsFragment() throws Exception {
+        mockMvc.perform(get("/articles/" + article.getId() + "/comments")).andExpect(status().isOk());
+    }
+
+    // Только справочники из кэша
+    @Test
+    @ExpectedStatements(0)
+    void createForm() throws Exception {
+        mockMvc.perform(get("/articles/new").with(user(owner))).andExpect(status().isOk());
+    }
+
+    // Статья с автором и владельцем (1) + её теги (1); права проверяются по пользователю из сессии
+    @Test
+    @ExpectedStatements(2)
+    void editForm() throws Exception {
+        mockMvc.perform(get("/articles/edit/" + article.getId()).with(user(owner))).andExpect(status().isOk());
+    }
+
+    // Автор (1) + теги одним запросом (1) + занятые варианты slug (1) + статья (1) + связи с тегами одним пакетом (1)
+    @Test
+    @ExpectedStatements(5)
+    void create() throws Exception {
+        mockMvc.perform(post("/articles").with(user(owner)).with(csrf())
+                        .param("title", "Новая").param("description", "Описание").param("body", "Текст")
+                        .param("authorId", authorId.toString()).param("tagIds", tagId.toString()))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    // Статья для проверки прав (1) + теги (1) + статья (1) + прежние теги статьи для статистики тегов (1) +
+    // замена связей с тегами (2)
+    @Test
+    @ExpectedStatements(6)
+    void update() throws Exception {
+        mockMvc.perform(post("/articles/update/" + scratch.getId()).with(user(owner)).with(csrf())
+                        .param("title", "Изменённая").param("description", "Описание").param("body", "Текст")
+                        .param("authorId", authorId.toString()).param("tagIds", tagId.toString()))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    // Статья для проверки прав (1) + порции id комментариев и избранного (2) + теги статьи для статистики (1) +
+    // статья со связями (2)
+    @Test
+    @ExpectedStatements(6)
+    void delete() throws Exception {
+        mockMvc.perform(get("/articles/delete/" + scratch.getId()).with(user(owner)))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    // Только проверка статьи (1): сам комментарий пишет фоновый писатель пачкой (см. CommentWriteBehind),
+    // счётчик статьи обновляется отдельно, пакетом
+    @Test
+    @ExpectedStatements(1)
+    void addComment() throws Exception {
+        mockMvc.perform(post("/articles/" + scratch.getId() + "/comments").with(user(owner)).with(csrf())
+                        .param("body", "Комментарий"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    // Гость отправляется на вход без обращения к БД
+    @Test
+    @ExpectedStatements(0)
+    void addCommentAsGuest() throws Exception {
+        mockMvc.perform(post("/articles/" + scratch.getId() + "/comments").with(csrf()).param("body", "Комментарий"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.articles.controllers;
+
+import com.example.articles.entities.User;
+import com.example.articles.service.AuthenticatedUser;
+import com.example.articles.service.CursorPage;
+import com.example.articles.service.ArticleService;
+import com.example.articles.service.AuthorService;
+import com.example.articles.service.TagService;
+import com.example.articles.repositories.ArticleCard;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Порции по 2 записи, чтобы проверить фиксацию порций и продолжение после ошибки на маленьком файле
+@SpringBootTest(properties = "articles.import.chunk-size=2")
+@AutoConfigureMockMvc
+class ArticleImportTests {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(1L, "admin", "", User.Roles.ADMIN_ROLE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ndjsonCreatesArticlesWithNewAuthorsAndTags() throws Exception {
+        String body = """
+                {"title":"Импорт первый","author":"Новый автор","tags":["Импортный тег","Второй тег"],"body":"Уникальноеслово"}
+                {"title":"Импорт второй","author":"Новый автор","tags":["Импортный тег"],"createdAt":"2020-01-02T03:04:00"}
+                {"title":"Импорт третий","author":"Другой автор"}
+                """;
+        mockMvc.perform(post("/api/articles/import").with(user(ADMIN)).with(csrf())
+                        .contentType(ArticleApiController.NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.committed").value(3))
+                .andExpect(jsonPath("$.error").doesNotExist());
+
+        assertThat(count("select count(*) from author where name in ('Новый автор', 'Другой автор')")).isEqualTo(2);
+        assertThat(count("select count(*) from article_tag at join tag t on t.id = at.tag_id " +
+                "where t.name = 'Импортный тег'")).isEqualTo(2);
+        assertThat(count("select count(*) from article where title = 'Импорт второй' " +
+                "and created_at = '2020-01-02 03:04:00' and owner_id = 1")).isEqualTo(1);
+        // Новые статьи сразу попадают в поисковый индекс
+        CursorPage<ArticleCard> found = articleService.searchArticleCards("Уникальноеслово", null, 10);
+        assertThat(found.getItems()).extracting(ArticleCard::getTitle).containsExactly("Импорт первый");
+        assertThat(found.getItems().get(0).getTags()).extracting(ArticleCard.TagRef::getName)
+                .containsExactlyInAnyOrder("Импортный тег", "Второй тег");
+    }
+
+    // Импорт из скрипта: HTTP Basic без CSRF-токена и без сессии
+    @Test
+    void basicCredentialsImportWithoutCsrfToken() throws Exception {
+        String body = """
+                {"title":"Импорт по Basic","author":"Новый автор"}
+                """;
+        mockMvc.perform(post("/api/articles/import").with(httpBasic("admin", "123"))
+                        .contentType(ArticleApiController.NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(request().sessionAttributeDoesNotExist("SPRING_SECURITY_CONTEXT"));
+        mockMvc.perform(post("/api/articles/import")
+                        .contentType(ArticleApiController.NDJSON).content(body))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(count("select count(*) from article where title = 'Импорт по Basic' and owner_id = 1")).isEqualTo(1);
+    }
+
+    // Автора и тег создали в обход кэша справочников (как параллельный импорт): вставка упирается
+    // в уникальное имя, и статья получает уже существующие строки, а не дубликаты
+    @Test
+    void namesCreatedConcurrentlyAreReusedNotDuplicated() throws Exception {
+        authorService.getAllAuthors();
+        tagService.getAllTags();
+        jdbcTemplate.update("insert into author (id, name, created_at) values (1000000, 'Автор из другого импорта', now())");
+        jdbcTemplate.update("insert into tag (id, name, created_at) values (1000000, 'Тег из другого импорта', now())");
+        jdbcTemplate.update("insert into tag_usage (tag_id, article_count) values (1000000, 0)");
+
+        String body = """
+                {"title":"Импорт с занятыми именами","author":"Автор из другого импорта","tags":["Тег из другого импорта"]}
+                """;
+        mockMvc.perform(post("/api/articles/import").with(user(ADMIN)).with(csrf())
+                        .contentType(ArticleApiController.NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        assertThat(count("select count(*) from author where name = 'Автор из другого импорта'")).isEqualTo(1);
+        assertThat(count("select count(*) from tag where name = 'Тег из другого импорта'")).isEqualTo(1);
+        assertThat(count("select author_id from article where title = 'Импорт с занятыми именами'")).isEqualTo(1000000);
+        assertThat(count("select at.tag_id from article_tag at join article a on a.id = at.article_id " +
+                "where a.title = 'Импорт с занятыми именами'")).isEqualTo(1000000);
+    }
+
+    @Test
+    void csvWithQuotedFieldsIsImported() throws Exception {
+        byte[] csv = new ClassPathResource("import/articles.csv").getContentAsByteArray();
+        mockMvc.perform(post("/api/articles/import").with(user(ADMIN)).with(csrf())
+                        .contentType(ArticleApiController.CSV).content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        assertThat(jdbcTemplate.queryForObject("select body from article where title = 'Импорт из CSV, файл'",
+                String.class)).isEqualTo("Текст\nв две строки");
+        assertThat(count("select count(*) from article_tag at join article a on a.id = at.article_id " +
+                "where a.title = 'Импорт из CSV, файл'")).isEqualTo(2);
+    }
+
+    @Test
+    void importResumesAfterBadRecord() throws Exception {
+        List<String> lines = List.of(
+                "{\"title\":\"Продолжение 1\",\"author\":\"Автор продолжения\"}",
+                "{\"title\":\"Продолжение 2\",\"author\":\"Автор продолжения\"}",
+                "{\"title\":\"Продолжение 3\",\"author\":\"Автор продолжения\"}",
+                "{\"author\":\"Автор продолжения\"}",
+                "{\"title\":\"Продолжение 5\",\"author\":\"Автор продолжения\"}");
+        mockMvc.perform(post("/api/articles/import").with(user(ADMIN)).with(csrf())
+                        .contentType(ArticleApiController.NDJSON).content(String.join("\n", lines)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.committed").value(3))
+                .andExpect(jsonPath("$.error").value("Запись 4: не указан title"));
+        assertThat(titles()).isEqualTo(3);
+
+        List<String> fixed = List.of(lines.get(0), lines.get(1), lines.get(2),
+                "{\"title\":\"Продолжение 4\",\"author\":\"Автор продолжения\"}", lines.get(4));
+        mockMvc.perform(post("/api/articles/import").param("skip", "3").with(user(ADMIN)).with(csrf())
+                        .contentType(ArticleApiController.NDJSON).content(String.join("\n", fixed)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.committed").value(5));
+        assertThat(titles()).isEqualTo(5);
+        assertThat(count("select count(distinct title) from article where title like 'Продолжение %'")).isEqualTo(5);
+    }
+
+    @Test
+    void importIsForAdminsOnly() throws Exception {
+        AuthenticatedUser regular = new AuthenticatedUser(2L, "user", "", User.Roles.USER_ROLE);
+        mockMvc.perform(post("/api/articles/import").with(user(regular)).with(csrf())
+                        .contentType(ArticleApiController.NDJSON).content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    private long titles() {
+        return count("select count(*) from article where title like 'Продолжение %'");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
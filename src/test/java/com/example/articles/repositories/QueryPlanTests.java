@@ -0,0 +1,177 @@
+package com.example.articles.repositories;
+
+import com.example.articles.config.SqlStatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Планы горячих запросов репозиториев на схеме из миграций: каждый читает таблицу по индексу, а не целиком.
+// EXPLAIN получает тот SQL, который Hibernate построил для @Query (перехватывается SqlStatementCounter),
+// параметры остаются "?". В плане H2 использованный индекс указан комментарием /* public.<индекс>: <условие> */,
+// полный проход - /* public.<таблица>.tableScan */, чтение в порядке индекса без сортировки - /* index sorted */.
+// H2 заводит для внешнего ключа свой индекс, если столбцы существующего не совпадают с ключом в точности,
+// и при равной оценке выбирает его (MariaDB использует для ключа составной индекс из миграции). Поэтому для
+// составных индексов (столбец ключа, created_at, id) проверяется и поиск по первому столбцу, и что с указанным
+// явно (use index) индексом H2 отдаёт страницу в порядке order by без сортировки
+@SpringBootTest
+class QueryPlanTests {
+
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleCommentRepository commentRepository;
+
+    @Autowired
+    private ArticleFavoriteRepository favoriteRepository;
+
+    @Autowired
+    private TagUsageRepository tagUsageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void userByUsername() {
+        assertUsesIndex(generatedSql(() -> userRepository.findCredentialsByUsername("admin")), "ux_user_username");
+    }
+
+    @Test
+    void articleBySlug() {
+        assertUsesIndex(generatedSql(() -> articleRepository.findIdBySlug("some-slug")), "ux_article_slug");
+    }
+
+    // Занятые основы slug порции импорта
+    @Test
+    void takenSlugsOfImportChunk() {
+        assertUsesIndex(generatedSql(() -> articleRepository.findSlugsIn(List.of("a", "b"))), "ux_article_slug");
+    }
+
+    @Test
+    void feedPage() {
+        String plan = plan(generatedSql(() -> articleRepository.findOlder(CURSOR, 100L, Limit.of(20))));
+        assertThat(plan).as(plan).contains("/* public.idx_article_created").contains("/* index sorted */")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    void feedPageBackwards() {
+        String plan = plan(generatedSql(() -> articleRepository.findNewer(CURSOR, 100L, Limit.of(20))));
+        assertThat(plan).as(plan).contains("/* public.idx_article_created").contains("/* index sorted */")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    void authorPage() {
+        String sql = generatedSql(() -> articleRepository.findOlderByAuthor(1L, CURSOR, 100L, Limit.of(20)));
+        assertSeeksBy(sql, "author_id");
+        assertServesOrder(sql, "article a1_0", "idx_article_author_created", "author_id");
+    }
+
+    @Test
+    void authorPageBackwards() {
+        String sql = generatedSql(() -> articleRepository.findNewerByAuthor(1L, CURSOR, 100L, Limit.of(20)));
+        assertSeeksBy(sql, "author_id");
+        assertServesOrder(sql, "article a1_0", "idx_article_author_created", "author_id");
+    }
+
+    // Статьи идут по idx_article_created в порядке ленты, связь с тегом проверяется по первичному ключу
+    // article_tag (article_id, tag_id): страница набирается без сортировки всех статей тега
+    @Test
+    void tagPage() {
+        String plan = plan(generatedSql(() -> articleRepository.findOlderByTag(1L, CURSOR, 100L, Limit.of(20))));
+        assertThat(plan).as(plan).contains("/* public.idx_article_created").contains("/* index sorted */")
+                .containsPattern("/\\* public\\.primary_key_\\w+: tag_id = \\?1\\s+and article_id = a1_0\\.id")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    void tagsOfCardPage() {
+        assertUsesIndex(generatedSql(() -> articleRepository.findTagRows(List.of(1L, 2L, 3L))), "primary_key");
+    }
+
+    @Test
+    void articlesOfOwner() {
+        assertSeeksBy(generatedSql(() -> articleRepository.findIdsByOwner(1L, Limit.of(500))), "owner_id");
+    }
+
+    @Test
+    void commentPage() {
+        String sql = generatedSql(() -> commentRepository.findPage(1L, CURSOR, 100L, Limit.of(20)));
+        assertSeeksBy(sql, "article_id");
+        assertServesOrder(sql, "article_comment ac1_0", "idx_article_comment_article_created", "article_id");
+    }
+
+    @Test
+    void commentsOfUser() {
+        assertUsesIndex(generatedSql(() -> commentRepository.findChunkByUser(1L, Limit.of(500))),
+                "idx_article_comment_user");
+    }
+
+    @Test
+    void favoritesOfUser() {
+        assertUsesIndex(generatedSql(() -> favoriteRepository.findChunkByUser(1L, Limit.of(500))),
+                "idx_article_favorite_user");
+    }
+
+    @Test
+    void favoritesOfArticles() {
+        assertUsesIndex(generatedSql(() -> favoriteRepository.findIdsByArticleIds(List.of(1L, 2L, 3L), Limit.of(500))),
+                "idx_article_favorite_article");
+    }
+
+    @Test
+    void mostUsedTags() {
+        String plan = plan(generatedSql(() -> tagUsageRepository.findMostUsed(Limit.of(10))));
+        assertThat(plan).as(plan).contains("/* public.idx_tag_usage_count").contains("/* index sorted */")
+                .doesNotContain("tablescan");
+    }
+
+    // SQL первого запроса, который Hibernate выполнил в call
+    private String generatedSql(Runnable call) {
+        try (SqlStatementCounter.Recording recording = statementCounter.start()) {
+            call.run();
+            assertThat(recording.getStatements()).isNotEmpty();
+            return recording.getStatements().get(0);
+        }
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = plan(sql);
+        assertThat(plan).as(plan).contains("/* public." + index).doesNotContain("tablescan");
+    }
+
+    // Поиск по индексу, первый столбец которого - column
+    private void assertSeeksBy(String sql, String column) {
+        String plan = plan(sql);
+        assertThat(plan).as(plan).containsPattern("/\\* public\\.\\w+: " + column + " ").doesNotContain("tablescan");
+    }
+
+    // Составной индекс (column, created_at, id) отдаёт строки в порядке order by целиком, а не только
+    // находит первую строку: "index sorted" без уточнения "1 of 3 columns"
+    private void assertServesOrder(String sql, String table, String index, String column) {
+        assertThat(sql).contains("from " + table + " ");
+        String plan = plan(sql.replace("from " + table + " ", "from " + table + " use index (" + index + ") "));
+        assertThat(plan).as(plan).contains("/* public." + index + ": " + column + " = ?1 */")
+                .contains("/* index sorted */").doesNotContain("tablescan");
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toLowerCase();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.Tag;
+import com.example.articles.entities.User;
+import com.example.articles.repositories.ArticleCard;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticleCardCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ArticleCardCache cardCache;
+
+    @Autowired
+    private ServletContext servletContext;
+
+    private Article article;
+
+    @BeforeEach
+    void setUp() {
+        article = articleService.findAll().get(0);
+    }
+
+    @Test
+    void repeatedPageReusesRenderedCards() throws Exception {
+        html(get("/articles?size=5"));
+        double hits = cardHits();
+
+        html(get("/articles?size=5"));
+
+        assertThat(cardHits() - hits).isEqualTo(5);
+    }
+
+    @Test
+    void ownerAndGuestGetDifferentCardVariants() throws Exception {
+        AuthenticatedUser owner = new AuthenticatedUser(article.getOwner().getId(), article.getOwner().getUsername(),
+                "", User.Roles.USER_ROLE);
+        String url = "/articles/by-author/" + article.getAuthor().getId();
+
+        assertThat(html(get(url))).doesNotContain("/articles/edit/" + article.getId());
+        assertThat(html(get(url).with(user(owner)))).contains("/articles/edit/" + article.getId());
+        assertThat(html(get(url))).doesNotContain("/articles/edit/" + article.getId());
+    }
+
+    @Test
+    void tagRenameRerendersCachedCards() throws Exception {
+        Tag tag = article.getTags().iterator().next();
+        String url = "/articles/by-tag/" + tag.getId();
+        assertThat(html(get(url))).contains(tag.getName());
+
+        Tag renamed = new Tag();
+        renamed.setName("Переименованный тег");
+        tagService.updateTag(tag.getId(), renamed);
+        try {
+            assertThat(html(get(url))).contains("Переименованный тег");
+        } finally {
+            Tag original = new Tag();
+            original.setName(tag.getName());
+            tagService.updateTag(tag.getId(), original);
+        }
+    }
+
+    @Test
+    void cardRenderedFromTagsReadBeforeRenameIsNotServed() throws Exception {
+        Tag tag = article.getTags().iterator().next();
+        String url = "/articles/by-tag/" + tag.getId();
+        // Запрос прочитал карточки до переименования, а отрисовал и положил их в кэш уже после вытеснения
+        CursorPage<ArticleCard> stale = articleService.getArticleCardsByTag(tag.getId(), null, 20);
+
+        Tag renamed = new Tag();
+        renamed.setName("Тег после гонки");
+        tagService.updateTag(tag.getId(), renamed);
+        try {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                    new MockHttpServletRequest(servletContext), new MockHttpServletResponse()));
+            try {
+                stale.getItems().forEach(card -> cardCache.render(card, null));
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+
+            // Ссылка именно этого тега: у другого тега имя может начинаться так же ("Western" и "Western 2")
+            String anchor = "<a href=\"" + url + "\">";
+            assertThat(html(get(url)))
+                    .containsPattern(Pattern.quote(anchor + "Тег после гонки") + "(, )?</a>")
+                    .doesNotContainPattern(Pattern.quote(anchor + HtmlUtils.htmlEscape(tag.getName())) + "(, )?</a>");
+        } finally {
+            Tag original = new Tag();
+            original.setName(tag.getName());
+            tagService.updateTag(tag.getId(), original);
+        }
+    }
+
+    private String html(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private double cardHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "articleCards").tag("result", "hit")
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.articles.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ArticleCountersTests {
+
+    @Autowired
+    private ArticleCounters articleCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentIncrementsAreFlushedWithoutLoss() throws InterruptedException {
+        Long articleId = jdbcTemplate.queryForObject("select min(id) from article", Long.class);
+        long before = commentCount(articleId);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> articleCounters.addComments(articleId, 1));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        articleCounters.flush();
+        assertThat(commentCount(articleId)).isEqualTo(before + 1000);
+
+        articleCounters.addComments(articleId, -1000);
+        articleCounters.flush();
+        assertThat(commentCount(articleId)).isEqualTo(before);
+    }
+
+    // Сбросы идут параллельно с приращениями: запись статьи то обнуляется и удаляется, то создаётся заново,
+    // и ни одно приращение не должно пропасть между чтением сумм и удалением записи
+    @Test
+    void incrementsDuringFlushesAreNotLost() throws InterruptedException {
+        Long articleId = jdbcTemplate.queryForObject("select min(id) from article", Long.class);
+        long before = commentCount(articleId);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        pool.execute(() -> {
+            while (writing.get()) {
+                articleCounters.flush();
+            }
+        });
+        CountDownLatch writers = new CountDownLatch(3);
+        for (int t = 0; t < 3; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    // Запись то и дело проходит через ноль - сброс выводит её из карты во время приращений
+                    articleCounters.addComments(articleId, 1);
+                    articleCounters.addComments(articleId, -1);
+                    articleCounters.addComments(articleId, 1);
+                    if (i % 50 == 0) {
+                        Thread.yield();
+                    }
+                }
+                writers.countDown();
+            });
+        }
+        assertThat(writers.await(30, TimeUnit.SECONDS)).isTrue();
+        writing.set(false);
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        articleCounters.flush();
+        assertThat(commentCount(articleId)).isEqualTo(before + 6000);
+
+        articleCounters.addComments(articleId, -6000);
+        articleCounters.flush();
+        assertThat(commentCount(articleId)).isEqualTo(before);
+    }
+
+    @Test
+    void reconcileFixesDrift() {
+        Long articleId = jdbcTemplate.queryForObject("select max(id) from article", Long.class);
+        long actual = jdbcTemplate.queryForObject(
+                "select count(*) from article_comment where article_id = ?", Long.class, articleId);
+        jdbcTemplate.update("update article set comment_count = ? where id = ?", actual + 42, articleId);
+
+        assertThat(articleCounters.reconcile()).isEqualTo(1);
+        assertThat(commentCount(articleId)).isEqualTo(actual);
+    }
+
+    private long commentCount(Long articleId) {
+        return jdbcTemplate.queryForObject("select comment_count from article where id = ?", Long.class, articleId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.repositories.ArticleCard;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ArticlePaginationTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Test
+    void forwardAndBackwardPagesCoverFeedInOrder() {
+        List<Long> expected = articleService.findAll().stream()
+                .sorted(Comparator.comparing(Article::getCreatedAt).thenComparing(Article::getId).reversed())
+                .map(Article::getId)
+                .toList();
+
+        // Идём вперёд до конца ленты
+        List<Long> forward = new ArrayList<>();
+        List<CursorPage<ArticleCard>> pages = new ArrayList<>();
+        CursorPage<ArticleCard> page = articleService.getArticleCards(null, 7);
+        assertThat(page.hasPrev()).isFalse();
+        while (true) {
+            pages.add(page);
+            page.getItems().forEach(a -> forward.add(a.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = articleService.getArticleCards(page.getNextCursor(), 7);
+        }
+        assertThat(forward).isEqualTo(expected);
+
+        // И обратно к первой странице: каждая страница должна совпасть с уже виденной
+        for (int i = pages.size() - 1; i > 0; i--) {
+            CursorPage<ArticleCard> previous = articleService.getArticleCards(pages.get(i).getPrevCursor(), 7);
+            assertThat(previous.getItems()).extracting(ArticleCard::getId)
+                    .isEqualTo(pages.get(i - 1).getItems().stream().map(ArticleCard::getId).toList());
+        }
+        assertThat(articleService.getArticleCards(pages.get(1).getPrevCursor(), 7).hasPrev()).isFalse();
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> articleService.getArticleCards("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
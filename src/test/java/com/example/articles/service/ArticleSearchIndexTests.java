@@ -0,0 +1,103 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleSearchIndexTests {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final ArticleSearchIndex index = new ArticleSearchIndex(null);
+
+    @Test
+    void matchesAllWordsByPrefixIgnoringCase() {
+        index.index(article(1, T0, "Spring Boot", "Введение в Spring"));
+        index.index(article(2, T0.plusDays(1), "Hibernate", "Кэш второго уровня в Spring"));
+        index.index(article(3, T0.plusDays(2), "Java", "Потоки"));
+
+        assertThat(index.findOlder("spring", null, null, 10)).containsExactly(2L, 1L);
+        assertThat(index.findOlder("SPR введ", null, null, 10)).containsExactly(1L);
+        assertThat(index.findOlder("кэш", null, null, 10)).containsExactly(2L);
+        assertThat(index.findOlder("python", null, null, 10)).isEmpty();
+        assertThat(index.findOlder("   ", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void pagesByCursorInBothDirections() {
+        for (int i = 1; i <= 5; i++) {
+            index.index(article(i, T0, "Статья " + i, "общий текст"));
+        }
+        // Одинаковое время создания - порядок определяется id
+        List<Long> first = index.findOlder("общий", null, null, 2);
+        assertThat(first).containsExactly(5L, 4L);
+        assertThat(index.findOlder("общий", T0, 4L, 2)).containsExactly(3L, 2L);
+        assertThat(index.findNewer("общий", T0, 2L, 2)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void reindexAndRemoveUpdatePostings() {
+        index.index(article(1, T0, "Старый заголовок", "текст"));
+        index.index(article(1, T0, "Новый заголовок", "текст"));
+        assertThat(index.findOlder("старый", null, null, 10)).isEmpty();
+        assertThat(index.findOlder("новый", null, null, 10)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.findOlder("заголовок", null, null, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    // Термины без статей уходят из словаря: он не растёт от правок и удалений
+    @Test
+    void termsWithoutArticlesArePruned() {
+        index.index(article(1, T0, "Общий первый", "текст"));
+        index.index(article(2, T0, "Общий второй", "текст"));
+        assertThat(index.termCount()).isEqualTo(4);
+
+        index.index(article(1, T0, "Общий третий", "текст"));
+        assertThat(index.termCount()).isEqualTo(4);
+        assertThat(index.findOlder("перв", null, null, 10)).isEmpty();
+
+        index.remove(2L);
+        index.remove(1L);
+        assertThat(index.termCount()).isZero();
+    }
+
+    // Статья с несколькими терминами одного префикса попадает в результат один раз
+    @Test
+    void prefixMatchingSeveralTermsReturnsEachArticleOnce() {
+        index.index(article(1, T0, "Кэш", "кэширование и кэши"));
+        index.index(article(2, T0.plusDays(1), "Кэширование", "текст"));
+        index.index(article(3, T0.plusDays(2), "Кэши", "кэш"));
+        index.index(article(4, T0.plusDays(3), "Другое", "текст"));
+
+        assertThat(index.findOlder("кэш", null, null, 10)).containsExactly(3L, 2L, 1L);
+        assertThat(index.findOlder("кэш текст", null, null, 10)).containsExactly(2L);
+    }
+
+    // id статей - bigint: индекс не ограничен диапазоном int
+    @Test
+    void idsBeyondIntRange() {
+        long big = Integer.MAX_VALUE + 10L;
+        index.index(article(big, T0.plusDays(1), "Большой id", "текст"));
+        index.index(article(1, T0, "Маленький id", "текст"));
+
+        assertThat(index.findOlder("id", null, null, 10)).containsExactly(big, 1L);
+        assertThat(index.findOlder("id", T0.plusDays(1), big, 10)).containsExactly(1L);
+        index.remove(big);
+        assertThat(index.findOlder("большой", null, null, 10)).isEmpty();
+    }
+
+    private static Article article(long id, LocalDateTime createdAt, String title, String body) {
+        Article article = new Article();
+        article.setId(id);
+        article.setCreatedAt(createdAt);
+        article.setTitle(title);
+        article.setBody(body);
+        return article;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.articles.service;
+
+import com.example.articles.config.SqlStatementCounter;
+import com.example.articles.entities.Article;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ArticleSlugsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleSlugs articleSlugs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    private Article sample;
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        sample = articleService.findAll().get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(id -> articleService.getArticleById(id).ifPresent(a -> articleService.deleteArticle(id)));
+    }
+
+    @Test
+    void slugifyTransliteratesAndTrims() {
+        assertThat(ArticleSlugs.slugify("Привет, мир!")).isEqualTo("privet-mir");
+        assertThat(ArticleSlugs.slugify("  Йога и ёжики: 10 советов ")).isEqualTo("yoga-i-ezhiki-10-sovetov");
+        assertThat(ArticleSlugs.slugify("Crème Brûlée")).isEqualTo("creme-brulee");
+        assertThat(ArticleSlugs.slugify("!!!")).isEqualTo("article");
+        assertThat(ArticleSlugs.slugify("а".repeat(200))).hasSize(ArticleSlugs.MAX_LENGTH);
+    }
+
+    @Test
+    void sameTitleGetsNumberedSuffix() {
+        Article first = create("Одинаковый заголовок", null);
+        Article second = create("Одинаковый заголовок", null);
+        Article third = create("Другой", "odinakovyy-zagolovok");
+
+        assertThat(first.getSlug()).isEqualTo("odinakovyy-zagolovok");
+        assertThat(second.getSlug()).isEqualTo("odinakovyy-zagolovok-2");
+        assertThat(third.getSlug()).isEqualTo("odinakovyy-zagolovok-3");
+    }
+
+    // Одновременные статьи с одним заголовком: все проверяют свободный slug до того, как кто-то его занял,
+    // проигравшие получают отказ ux_article_slug при фиксации и повторяют запись со следующим номером
+    @Test
+    void concurrentCreatesWithSameTitleGetDistinctSlugs() throws Exception {
+        int writers = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Article>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < writers; i++) {
+                results.add(pool.submit(() -> {
+                    Article article = new Article();
+                    article.setTitle("Гонка за ссылкой");
+                    article.setBody("Текст");
+                    start.await();
+                    return articleService.createArticle(article, sample.getAuthor().getId(), List.of(),
+                            sample.getOwner().getId());
+                }));
+            }
+            start.countDown();
+            List<String> slugs = new ArrayList<>();
+            for (Future<Article> result : results) {
+                Article saved = result.get(30, TimeUnit.SECONDS);
+                created.add(saved.getId());
+                slugs.add(saved.getSlug());
+            }
+            assertThat(slugs).doesNotHaveDuplicates().contains("gonka-za-ssylkoy").allMatch(slug ->
+                    slug.startsWith("gonka-za-ssylkoy"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void importChunkResolvesCollisionsInDatabaseAndWithinChunk() {
+        create("Порция", null);
+
+        List<String> slugs = articleSlugs.unique(Arrays.asList(null, null, "Своя ссылка", "svoya-ssylka"),
+                List.of("Порция", "Порция", "x", "y"));
+
+        assertThat(slugs).containsExactly("portsiya-2", "portsiya-3", "svoya-ssylka", "svoya-ssylka-2");
+    }
+
+    // Занятость проверяется точечными запросами: первая коллизия основы ищет границу base-N за O(log N),
+    // следующие - один запрос к очередному номеру; семейство base-% не читается
+    @Test
+    void collisionsProbeSuffixesWithoutReadingFamily() {
+        for (String slug : List.of("kolliziya", "kolliziya-2", "kolliziya-3", "kolliziya-4", "kolliziya-5")) {
+            create("Коллизия", slug);
+        }
+
+        try (SqlStatementCounter.Recording recording = statementCounter.start()) {
+            assertThat(articleSlugs.unique(null, "Коллизия", null)).isEqualTo("kolliziya-6");
+            assertThat(recording.getCount()).isLessThanOrEqualTo(8);
+            assertThat(recording.getStatements()).noneMatch(sql -> sql.contains(" like "));
+        }
+        // Выданный номер не возвращается, даже если статью с ним не сохранили
+        try (SqlStatementCounter.Recording recording = statementCounter.start()) {
+            assertThat(articleSlugs.unique(null, "Коллизия", null)).isEqualTo("kolliziya-7");
+            assertThat(recording.getCount()).isEqualTo(2);
+        }
+    }
+
+    // Удаление по id убирает slug из кэша через обратную карту: следующее чтение идёт в БД
+    @Test
+    void deletedArticleLeavesSlugCache() {
+        Article article = create("Удалят через сервис", null);
+        assertThat(articleSlugs.resolve(article.getSlug())).isEqualTo(article.getId());
+
+        articleService.deleteArticle(article.getId());
+
+        try (SqlStatementCounter.Recording recording = statementCounter.start()) {
+            assertThat(articleSlugs.resolve(article.getSlug())).isNull();
+            assertThat(recording.getCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void slugAndIdPagesShareVersion() throws Exception {
+        String byId = mockMvc.perform(get("/articles/" + sample.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/articles/s/" + sample.getSlug()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/articles/s/" + sample.getSlug()).header(HttpHeaders.IF_NONE_MATCH, byId))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void changedSlugMovesLink() {
+        Article article = create("Старое название", null);
+        assertThat(articleService.getArticleBySlug("staroe-nazvanie")).isPresent();
+
+        Article update = new Article();
+        update.setTitle("Новое название");
+        update.setSlug("Новая ссылка");
+        update.setAuthor(sample.getAuthor());
+        articleService.updateArticle(article.getId(), update);
+
+        assertThat(articleService.getArticleBySlug("staroe-nazvanie")).isEmpty();
+        assertThat(articleService.getArticleBySlug("novaya-ssylka")).map(Article::getId).contains(article.getId());
+    }
+
+    @Test
+    void updateWithoutSlugKeepsLink() {
+        Article article = create("Постоянная ссылка", null);
+
+        Article update = new Article();
+        update.setTitle("Заголовок поменялся");
+        update.setAuthor(sample.getAuthor());
+        articleService.updateArticle(article.getId(), update);
+
+        assertThat(articleService.getArticleById(article.getId())).map(Article::getSlug).contains("postoyannaya-ssylka");
+    }
+
+    @Test
+    void cachedSlugOfArticleDeletedElsewhereIsNotFound() {
+        Article article = create("Удалят мимо сервиса", null);
+        assertThat(articleService.getArticleBySlug(article.getSlug())).isPresent();
+
+        jdbcTemplate.update("delete from article where id = ?", article.getId());
+
+        assertThat(articleService.getArticleBySlug(article.getSlug())).isEmpty();
+    }
+
+    private Article create(String title, String slug) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setSlug(slug);
+        article.setBody("Текст");
+        Article saved = articleService.createArticle(article, sample.getAuthor().getId(), List.of(),
+                sample.getOwner().getId());
+        created.add(saved.getId());
+        return saved;
+    }
+}
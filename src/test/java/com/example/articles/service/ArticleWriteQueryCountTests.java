@@ -0,0 +1,77 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.repositories.ReferenceItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ArticleWriteQueryCountTests {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createCostDoesNotGrowWithTagCount() {
+        List<Long> tagIds = tagService.getAllTags().stream().map(ReferenceItem::getId).toList();
+        Long authorId = authorService.getAllAuthors().get(0).getId();
+        Long ownerId = articleService.findAll().get(0).getOwner().getId();
+
+        long oneTag = statementsToCreate(authorId, tagIds.subList(0, 1), ownerId);
+        long allTags = statementsToCreate(authorId, tagIds, ownerId);
+
+        assertThat(tagIds).hasSizeGreaterThan(1);
+        assertThat(allTags).isEqualTo(oneTag);
+    }
+
+    @Test
+    void unknownTagIdIsRejected() {
+        Long authorId = authorService.getAllAuthors().get(0).getId();
+        Long ownerId = articleService.findAll().get(0).getOwner().getId();
+        assertThatThrownBy(() -> articleService.createArticle(article(), authorId, List.of(-1L), ownerId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("-1");
+    }
+
+    private long statementsToCreate(Long authorId, List<Long> tagIds, Long ownerId) {
+        statistics.clear();
+        Article created = articleService.createArticle(article(), authorId, tagIds, ownerId);
+        long statements = statistics.getPrepareStatementCount();
+        articleService.deleteArticle(created.getId());
+        return statements;
+    }
+
+    private static Article article() {
+        Article article = new Article();
+        article.setTitle("Пакетная запись");
+        article.setDescription("Описание");
+        article.setBody("Текст");
+        return article;
+    }
+}
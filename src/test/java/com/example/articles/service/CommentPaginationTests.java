@@ -0,0 +1,62 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.ArticleComment;
+import com.example.articles.entities.User;
+import com.example.articles.repositories.ArticleCommentRepository;
+import com.example.articles.repositories.ArticleCommentRow;
+import com.example.articles.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CommentPaginationTests {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleCommentRepository articleCommentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void pagesCoverAllCommentsInCreationOrder() {
+        Article article = articleService.findAll().get(0);
+        User user = userRepository.findByUsername("admin");
+        // Комментарии с одинаковым временем создания (до минуты) упорядочиваются по id
+        for (int i = 0; i < 25; i++) {
+            assertThat(commentService.submitComment(article.getId(), user.getId(), "comment " + i))
+                    .isEqualTo(CommentSubmission.SAVED);
+        }
+
+        List<Long> expected = articleCommentRepository.findAll().stream()
+                .filter(c -> c.getArticle().getId().equals(article.getId()))
+                .sorted(Comparator.comparing(ArticleComment::getCreatedAt).thenComparing(ArticleComment::getId))
+                .map(ArticleComment::getId)
+                .toList();
+
+        List<Long> seen = new ArrayList<>();
+        CursorPage<ArticleCommentRow> page = commentService.getComments(article.getId(), null, 10);
+        while (true) {
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(10);
+            page.getItems().forEach(c -> seen.add(c.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = commentService.getComments(article.getId(), page.getNextCursor(), 10);
+        }
+        assertThat(seen).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.User;
+import com.example.articles.repositories.ArticleCommentRow;
+import com.example.articles.repositories.ArticleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class CommentWriteBehindTests {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleCounters articleCounters;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentCommentsAreWrittenInBatches() throws Exception {
+        Article article = articleService.findAll().get(0);
+        Long userId = article.getOwner().getId();
+        long before = comments(article.getId());
+        long batchesBefore = meterRegistry.get("articles.comments.batch").summary().count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<CommentSubmission>> written = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                String body = "Комментарий " + i;
+                written.add(pool.submit(() -> commentService.submitComment(article.getId(), userId, body)));
+            }
+            for (Future<CommentSubmission> submission : written) {
+                assertThat(submission.get()).isEqualTo(CommentSubmission.SAVED);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        articleCounters.flush();
+
+        assertThat(comments(article.getId())).isEqualTo(before + 200);
+        assertThat(jdbcTemplate.queryForObject("select comment_count from article where id = ?", Long.class,
+                article.getId())).isEqualTo(before + 200);
+        // Запросы, пришедшие пока писатель занят, уходят одной транзакцией
+        assertThat(meterRegistry.get("articles.comments.batch").summary().count() - batchesBefore).isLessThan(200);
+    }
+
+    @Test
+    void commentForMissingArticleIsRejected() {
+        assertThatThrownBy(() -> commentService.submitComment(-1L, 1L, "Комментарий"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void failedCommentIsReportedAndKeptForItsAuthor() {
+        Article article = articleService.findAll().get(0);
+        // Пользователя нет в БД - запись упрётся во внешний ключ
+        AuthenticatedUser ghost = new AuthenticatedUser(-1L, "ghost", "", User.Roles.USER_ROLE);
+
+        assertThat(commentService.submitComment(article.getId(), ghost.getId(), "Не запишется"))
+                .isEqualTo(CommentSubmission.FAILED);
+        assertThat(commentService.getPendingComments(article.getId(), ghost)).isEmpty();
+        assertThat(commentService.takeFailedComments(article.getId(), ghost))
+                .extracting(ArticleCommentRow::getBody).containsExactly("Не запишется");
+        assertThat(commentService.takeFailedComments(article.getId(), ghost)).isEmpty();
+    }
+
+    @Test
+    void submitCommentStopsWaitingAfterAckTimeout() {
+        Article article = articleService.findAll().get(0);
+        // Писатель не запущен - подтверждение не придёт
+        CommentWriteBehind stalled = new CommentWriteBehind(mock(EntityManagerFactory.class), new ArticleCounters(null),
+                new SimpleMeterRegistry(), 10, 10, Duration.ZERO, Duration.ZERO);
+        CommentService service = new CommentServiceImpl(null, articleRepository, stalled, Duration.ofMillis(50));
+
+        assertThat(service.submitComment(article.getId(), 1L, "Комментарий")).isEqualTo(CommentSubmission.PENDING);
+        assertThat(stalled.pending(article.getId(), 1L)).hasSize(1);
+    }
+
+    @Test
+    void fullQueueRejectsNewCommentsAndKeepsAcceptedOnesVisible() {
+        // Писатель не запущен - очередь только заполняется
+        CommentWriteBehind queue = new CommentWriteBehind(mock(EntityManagerFactory.class), new ArticleCounters(null),
+                new SimpleMeterRegistry(), 2, 10, Duration.ZERO, Duration.ofMillis(50));
+        queue.enqueue(1L, 7L, "первый");
+        queue.enqueue(1L, 8L, "второй");
+
+        assertThatThrownBy(() -> queue.enqueue(1L, 7L, "третий")).isInstanceOf(CommentQueueFullException.class);
+        assertThat(queue.pending(1L, 7L)).hasSize(1);
+        assertThat(queue.pending(1L, 7L).get(0).asRow("user").getBody()).isEqualTo("первый");
+        assertThat(queue.pending(2L, 7L)).isEmpty();
+    }
+
+    private long comments(Long articleId) {
+        return jdbcTemplate.queryForObject("select count(*) from article_comment where article_id = ?", Long.class,
+                articleId);
+    }
+}
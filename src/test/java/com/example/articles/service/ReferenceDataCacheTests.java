@@ -0,0 +1,79 @@
+package com.example.articles.service;
+
+import com.example.articles.config.CacheConfig;
+import com.example.articles.entities.Tag;
+import com.example.articles.repositories.ReferenceItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReferenceDataCacheTests {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheManager.getCache(CacheConfig.TAGS).clear();
+        cacheManager.getCache(CacheConfig.AUTHORS).clear();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        tagService.getAllTags();
+        authorService.getAllAuthors();
+
+        statistics.clear();
+        tagService.getAllTags();
+        authorService.getAllAuthors();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void tagWritesEvictCachedList() {
+        int before = tagService.getAllTags().size();
+
+        Tag tag = new Tag();
+        tag.setName("cache-test");
+        Tag created = tagService.createTag(tag);
+        assertThat(tagService.getAllTags()).hasSize(before + 1);
+
+        tagService.deleteTag(created.getId());
+        assertThat(tagService.getAllTags()).hasSize(before);
+    }
+
+    // Из кэша отдаётся один и тот же список всем запросам - он неизменяемый и без сущностей JPA
+    @Test
+    void cachedListsAreImmutableItems() {
+        List<ReferenceItem> tags = tagService.getAllTags();
+        List<ReferenceItem> authors = authorService.getAllAuthors();
+
+        assertThat(tagService.getAllTags()).isSameAs(tags);
+        assertThat(tags).isNotEmpty().allSatisfy(tag -> assertThat(tag.getName()).isNotNull());
+        assertThat(authors).isNotEmpty().allSatisfy(author -> assertThat(author.getName()).isNotNull());
+        assertThatThrownBy(() -> tags.add(new ReferenceItem(0L, "x"))).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
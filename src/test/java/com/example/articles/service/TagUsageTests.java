@@ -0,0 +1,192 @@
+package com.example.articles.service;
+
+import com.example.articles.config.ExpectedStatements;
+import com.example.articles.entities.Article;
+import com.example.articles.entities.Tag;
+import com.example.articles.entities.User;
+import com.example.articles.repositories.TagUsageRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TagUsageTests {
+
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(1L, "admin", "", User.Roles.ADMIN_ROLE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TagUsageCounters tagUsage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Article sample;
+
+    @BeforeEach
+    void setUp() {
+        sample = articleService.findAll().get(0);
+        tagUsage.flush();
+    }
+
+    @Test
+    void seededUsageMatchesArticleTags() {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tag_usage u where u.article_count <> " +
+                "(select count(*) from article_tag at where at.tag_id = u.tag_id)", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tag t " +
+                "where not exists (select 1 from tag_usage u where u.tag_id = t.id)", Long.class)).isZero();
+    }
+
+    @Test
+    void articleWritesApplyTagDiffs() {
+        Tag first = tag("Статистика 1");
+        Tag second = tag("Статистика 2");
+        Tag third = tag("Статистика 3");
+        assertThat(usage(first)).isZero();
+
+        Article article = articleService.createArticle(article(), sample.getAuthor().getId(),
+                List.of(first.getId(), second.getId()), sample.getOwner().getId());
+        tagUsage.flush();
+        assertThat(usage(first)).isEqualTo(1);
+        assertThat(usage(second)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select last_used_at from tag_usage where tag_id = ?",
+                LocalDateTime.class, first.getId())).isNotNull();
+
+        articleService.updateArticle(article.getId(), article(), sample.getAuthor().getId(),
+                List.of(second.getId(), third.getId()));
+        tagUsage.flush();
+        assertThat(usage(first)).isZero();
+        assertThat(usage(second)).isEqualTo(1);
+        assertThat(usage(third)).isEqualTo(1);
+
+        articleService.deleteArticle(article.getId());
+        tagUsage.flush();
+        assertThat(usage(second)).isZero();
+        assertThat(usage(third)).isZero();
+
+        List.of(first, second, third).forEach(tag -> tagService.deleteTag(tag.getId()));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from tag_usage where tag_id = ?",
+                Long.class, first.getId())).isZero();
+    }
+
+    @Test
+    void reconcileRepairsDrift() {
+        Tag tag = sample.getTags().iterator().next();
+        long actual = usage(tag);
+        jdbcTemplate.update("update tag_usage set article_count = article_count + 5 where tag_id = ?", tag.getId());
+
+        assertThat(tagUsage.reconcile()).isPositive();
+        assertThat(usage(tag)).isEqualTo(actual);
+    }
+
+    @Test
+    void topTagsAreSortedByArticleCount() {
+        List<TagUsageRow> top = tagService.getTagUsage(TagService.SORT_POPULAR, 3);
+
+        assertThat(top).hasSize(3);
+        assertThat(top).isSortedAccordingTo(Comparator.comparingLong(TagUsageRow::getArticleCount).reversed());
+        assertThat(top.get(0).getArticleCount()).isEqualTo(jdbcTemplate.queryForObject(
+                "select max(c) from (select count(*) c from article_tag group by tag_id) x", Long.class));
+    }
+
+    @Test
+    void unknownSortFallsBackToPopular() throws Exception {
+        assertThat(tagService.getTagUsage("x", 3)).extracting(TagUsageRow::getId)
+                .isEqualTo(tagService.getTagUsage(TagService.SORT_POPULAR, 3).stream().map(TagUsageRow::getId).toList());
+        mockMvc.perform(get("/tags").param("sort", "x").with(user(ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    // Сбросы идут параллельно с изменениями: запись тега то обнуляется и удаляется, то создаётся заново,
+    // и ни одно изменение не должно пропасть между снимком и удалением записи
+    @Test
+    void changesDuringFlushesAreNotLost() throws InterruptedException {
+        Tag tag = sample.getTags().iterator().next();
+        long before = usage(tag);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        pool.execute(() -> {
+            while (writing.get()) {
+                tagUsage.flush();
+            }
+        });
+        CountDownLatch writers = new CountDownLatch(3);
+        for (int t = 0; t < 3; t++) {
+            pool.execute(() -> {
+                // Добавление и удаление по очереди: сумма в памяти то и дело возвращается к нулю
+                for (int i = 0; i < 20000; i++) {
+                    tagUsage.added(List.of(tag.getId()), LocalDateTime.now());
+                    tagUsage.removed(List.of(tag.getId()));
+                }
+                tagUsage.added(List.of(tag.getId()), LocalDateTime.now());
+                writers.countDown();
+            });
+        }
+        assertThat(writers.await(30, TimeUnit.SECONDS)).isTrue();
+        writing.set(false);
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        tagUsage.flush();
+        assertThat(usage(tag)).isEqualTo(before + 3);
+
+        tagUsage.removed(Collections.nCopies(3, tag.getId()));
+        tagUsage.flush();
+        assertThat(usage(tag)).isEqualTo(before);
+    }
+
+    // Вся страница тегов - одно чтение tag_usage с названиями тегов
+    @Test
+    @ExpectedStatements(1)
+    void tagsPageIsOneQuery() throws Exception {
+        mockMvc.perform(get("/tags").param("sort", "recent").param("top", "10").with(user(ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    private Tag tag(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        return tagService.createTag(tag);
+    }
+
+    private long usage(Tag tag) {
+        return jdbcTemplate.queryForObject("select article_count from tag_usage where tag_id = ?", Long.class,
+                tag.getId());
+    }
+
+    private static Article article() {
+        Article article = new Article();
+        article.setTitle("Статья со статистикой тегов");
+        article.setBody("Текст");
+        return article;
+    }
+}
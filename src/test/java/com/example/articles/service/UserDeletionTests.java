@@ -0,0 +1,120 @@
+package com.example.articles.service;
+
+import com.example.articles.entities.Article;
+import com.example.articles.entities.ArticleFavorite;
+import com.example.articles.entities.User;
+import com.example.articles.repositories.ArticleFavoriteRepository;
+import com.example.articles.repositories.ArticleRepository;
+import com.example.articles.repositories.ReferenceItem;
+import com.example.articles.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserDeletionTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private ArticleCounters articleCounters;
+
+    @Autowired
+    private ArticleSearchIndex searchIndex;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleFavoriteRepository articleFavoriteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void deletesCommentsFavoritesAndOwnedArticlesInBulk() {
+        User user = new User();
+        user.setUsername("bulk-delete");
+        user.setPassword("secret");
+        user = userService.createUser(user);
+        Long adminId = userRepository.findByUsername("admin").getId();
+
+        // Чужая статья с комментариями и избранным удаляемого пользователя
+        Article other = articleService.findAll().get(0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(commentService.submitComment(other.getId(), user.getId(), "comment " + i))
+                    .isEqualTo(CommentSubmission.SAVED);
+        }
+        ArticleFavorite favorite = new ArticleFavorite();
+        favorite.setArticle(other);
+        favorite.setUser(user);
+        favorite.setCreatedAt(LocalDateTime.now());
+        articleFavoriteRepository.save(favorite);
+        articleCounters.addFavorites(other.getId(), 1);
+
+        // Своя статья, которую комментируют другие
+        Article own = new Article();
+        own.setTitle("Qwertyzxc");
+        own.setBody("Текст");
+        List<Long> tagIds = tagService.getAllTags().stream().map(ReferenceItem::getId).toList();
+        own = articleService.createArticle(own, authorService.getAllAuthors().get(0).getId(), tagIds, user.getId());
+        for (int i = 0; i < 40; i++) {
+            assertThat(commentService.submitComment(own.getId(), adminId, "reply " + i))
+                    .isEqualTo(CommentSubmission.SAVED);
+        }
+
+        articleCounters.flush();
+        long comments = count("comment_count", other.getId());
+        long favorites = count("favorite_count", other.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        userService.deleteUser(user.getId());
+        // Число запросов определяется числом порций, а не числом удаляемых строк
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(articleRepository.existsById(own.getId())).isFalse();
+        assertThat(searchIndex.findOlder("qwertyzxc", null, null, 10)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from article_comment where user_id = ? or article_id = ?",
+                Long.class, user.getId(), own.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from article_favorite where user_id = ?",
+                Long.class, user.getId())).isZero();
+
+        articleCounters.flush();
+        assertThat(count("comment_count", other.getId())).isEqualTo(comments - 3);
+        assertThat(count("favorite_count", other.getId())).isEqualTo(favorites - 1);
+    }
+
+    private long count(String column, Long articleId) {
+        return jdbcTemplate.queryForObject("select " + column + " from article where id = ?", Long.class, articleId);
+    }
+}
@@ -1,9 +1,10 @@
 package ee.ivkhkdev.javafaker_1;
 
+import com.example.articles.ArticlesApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(classes = ArticlesApplication.class)
 class JavaFaker1ApplicationTests {
 
     @Test